@@ -0,0 +1,76 @@
+package de.natalie.classfile.benchmarks;
+
+import io.quarkus.arc.Unremovable;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.classfile.ClassFile;
+import java.lang.constant.ClassDesc;
+
+import static de.natalie.classfile.deployment.utils.ProcessorUtils.generateConstructor;
+import static de.natalie.classfile.deployment.utils.ProcessorUtils.generateScope;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Compares the former ASM based scope pass (serialize, re-parse with {@link ClassReader}, re-write with
+ * {@link ClassWriter}) with emitting the annotations in the same {@code ClassFile.build} pass.
+ * Run with {@code -prof gc} to compare the allocation per generated class.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@OutputTimeUnit(MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class AnnotationPassBenchmark {
+    private static final ClassDesc DESC = ClassDesc.of(Fixtures.PACKAGE, "GeneratedReplyHandler");
+
+    private ClassFile context;
+
+    @Setup
+    public void setup() {
+        context = Fixtures.context(Fixtures.config(false));
+    }
+
+    @Benchmark
+    public byte[] asmPass() {
+        final var bytes = context.build(DESC, classBuilder -> {
+            Fixtures.buildReplyHandler(classBuilder);
+            generateConstructor(classBuilder);
+        });
+
+        final var reader = new ClassReader(bytes);
+        final var writer = new ClassWriter(reader, 0);
+        reader.accept(new ClassVisitor(Opcodes.ASM9, writer) {
+            @Override
+            public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+                super.visit(version, access, name, signature, superName, interfaces);
+                visitAnnotation(ApplicationScoped.class.descriptorString(), true).visitEnd();
+                visitAnnotation(Unremovable.class.descriptorString(), true).visitEnd();
+            }
+        }, 0);
+        return writer.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] singlePass() {
+        return context.build(DESC, classBuilder -> {
+            Fixtures.buildReplyHandler(classBuilder);
+            generateConstructor(classBuilder);
+            generateScope(classBuilder, ApplicationScoped.class, true);
+        });
+    }
+}
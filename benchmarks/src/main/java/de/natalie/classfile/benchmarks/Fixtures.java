@@ -0,0 +1,112 @@
+package de.natalie.classfile.benchmarks;
+
+import de.natalie.classfile.deployment.builditem.GeneratedClassFileBeanBuildItem;
+import de.natalie.classfile.deployment.config.ClassFileBuildTimeConfig.GenerationConfig;
+import de.natalie.classfile.deployment.config.ClassFileBuildTimeConfig.HierarchyResolution;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.experimental.UtilityClass;
+import org.jboss.jandex.Indexer;
+
+import java.lang.classfile.ClassBuilder;
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.ClassFile.DeadCodeOption;
+import java.lang.classfile.ClassFile.DebugElementsOption;
+import java.lang.classfile.ClassFile.StackMapsOption;
+import java.lang.classfile.CodeBuilder;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.classDesc;
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.classEntry;
+import static de.natalie.classfile.deployment.utils.ProcessorUtils.classFileContext;
+import static java.lang.classfile.ClassFile.ACC_PUBLIC;
+import static java.lang.constant.ConstantDescs.CD_Object;
+import static java.lang.constant.ConstantDescs.CD_String;
+import static java.lang.constant.ConstantDescs.CD_void;
+
+/**
+ * Class builders mirroring the examples, plus the configuration used to drive the generation pipeline outside of a
+ * Quarkus build.
+ */
+@UtilityClass
+class Fixtures {
+    static final String PACKAGE = Fixtures.class.getPackageName();
+
+    record BenchmarkConfig(boolean parallel,
+                           OptionalInt parallelism,
+                           StackMapsOption stackMaps,
+                           DebugElementsOption debugElements,
+                           DeadCodeOption deadCode,
+                           boolean optimize,
+                           Optional<Boolean> jfrEvents,
+                           HierarchyResolution classHierarchyResolution) implements GenerationConfig {
+    }
+
+    static GenerationConfig config(final boolean parallel) {
+        return new BenchmarkConfig(parallel,
+                                   OptionalInt.empty(),
+                                   StackMapsOption.STACK_MAPS_WHEN_REQUIRED,
+                                   DebugElementsOption.PASS_DEBUG,
+                                   DeadCodeOption.PATCH_DEAD_CODE,
+                                   false,
+                                   Optional.empty(),
+                                   HierarchyResolution.INDEX);
+    }
+
+    static ClassFile context(final GenerationConfig config) {
+        return classFileContext(config, new Indexer().complete());
+    }
+
+    static List<GeneratedClassFileBeanBuildItem> replyHandlers(final int count) {
+        return IntStream.range(0, count)
+                        .mapToObj(index -> bean(ClassDesc.of(PACKAGE, "GeneratedReplyHandler" + index), Fixtures::buildReplyHandler))
+                        .toList();
+    }
+
+    static GeneratedClassFileBeanBuildItem bean(final ClassDesc desc, final Consumer<ClassBuilder> builder) {
+        return GeneratedClassFileBeanBuildItem.builder()
+                                              .unremovable(true)
+                                              .generateConstructor(true)
+                                              .scope(ApplicationScoped.class)
+                                              .classDesc(desc)
+                                              .classBuilder(builder)
+                                              .build();
+    }
+
+    /**
+     * Same structure as {@code buildInvoker} of the interface implementation example.
+     */
+    static void buildPing(final ClassBuilder classBuilder) {
+        classBuilder.withFlags(ACC_PUBLIC)
+                    .withInterfaces(classEntry(classBuilder, Producer.class))
+                    .withMethodBody("produce", MethodTypeDesc.of(CD_String), ACC_PUBLIC,
+                                    codeBuilder -> codeBuilder.ldc("Pong!").areturn());
+    }
+
+    /**
+     * Same structure as {@code buildHandler} of the Vert.x bus consumer example, without the event bus registration.
+     */
+    static void buildReplyHandler(final ClassBuilder classBuilder) {
+        classBuilder.withFlags(ACC_PUBLIC)
+                    .withSuperclass(CD_Object)
+                    .withInterfaces(classEntry(classBuilder, Consumer.class))
+                    .withMethodBody("accept", MethodTypeDesc.of(CD_void, CD_Object), ACC_PUBLIC, Fixtures::buildAcceptMethod);
+    }
+
+    private static void buildAcceptMethod(final CodeBuilder builder) {
+        final var messageDesc = classDesc(Message.class);
+
+        builder.aload(1)
+               .checkcast(messageDesc)
+               .astore(2).aload(2)
+               .invokevirtual(messageDesc, "body", MethodTypeDesc.of(CD_Object))
+               .aload(2).swap()
+               .invokevirtual(messageDesc, "reply", MethodTypeDesc.of(CD_void, CD_Object))
+               .return_();
+    }
+}
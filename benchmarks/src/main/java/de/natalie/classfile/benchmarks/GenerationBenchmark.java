@@ -0,0 +1,54 @@
+package de.natalie.classfile.benchmarks;
+
+import de.natalie.classfile.deployment.builditem.GeneratedClassFileBeanBuildItem;
+import de.natalie.classfile.deployment.generator.ClassFileBeanGenerator;
+import de.natalie.classfile.deployment.generator.GeneratedClassFile;
+import io.quarkus.arc.deployment.GeneratedBeanBuildItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Throughput of the pipeline behind {@code registerGeneratedBeans}: generating the declared beans and turning them
+ * into {@link GeneratedBeanBuildItem}s. Run with {@code -prof gc} to record the allocation per operation.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@OutputTimeUnit(MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class GenerationBenchmark {
+    @Param({"10", "1000", "100000"})
+    int beanCount;
+
+    @Param({"false", "true"})
+    boolean parallel;
+
+    private List<GeneratedClassFileBeanBuildItem> beans;
+    private ClassFileBeanGenerator generator;
+
+    @Setup
+    public void setup() {
+        final var config = Fixtures.config(parallel);
+        beans = Fixtures.replyHandlers(beanCount);
+        generator = new ClassFileBeanGenerator(config, Fixtures.context(config), null);
+    }
+
+    @Benchmark
+    public List<GeneratedBeanBuildItem> registerGeneratedBeans() {
+        return generator.generate(beans).stream().map(GeneratedClassFile::toBuildItem).toList();
+    }
+}
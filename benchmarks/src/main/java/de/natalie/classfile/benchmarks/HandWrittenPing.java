@@ -0,0 +1,8 @@
+package de.natalie.classfile.benchmarks;
+
+public class HandWrittenPing implements Producer {
+    @Override
+    public String produce() {
+        return "Pong!";
+    }
+}
@@ -0,0 +1,11 @@
+package de.natalie.classfile.benchmarks;
+
+import java.util.function.Consumer;
+
+public class HandWrittenReplyHandler implements Consumer<Object> {
+    @Override
+    public void accept(final Object message) {
+        final var typed = (Message) message;
+        typed.reply(typed.body());
+    }
+}
@@ -0,0 +1,80 @@
+package de.natalie.classfile.benchmarks;
+
+import de.natalie.classfile.deployment.generator.ClassFileBeanGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.classfile.ClassBuilder;
+import java.lang.constant.ClassDesc;
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Invocation cost of generated classes compared to their hand-written equivalents:
+ * the {@code Ping.produce()} of the interface implementation example and the {@code ReplyHandler.accept()}
+ * of the Vert.x bus consumer example.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@OutputTimeUnit(NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class InvocationBenchmark {
+    private Producer generatedPing;
+    private Producer handWrittenPing;
+    private Consumer<Object> generatedReplyHandler;
+    private Consumer<Object> handWrittenReplyHandler;
+    private Message message;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws ReflectiveOperationException {
+        generatedPing = (Producer) define("GeneratedPing", Fixtures::buildPing);
+        generatedReplyHandler = (Consumer<Object>) define("GeneratedReplyHandler", Fixtures::buildReplyHandler);
+        handWrittenPing = new HandWrittenPing();
+        handWrittenReplyHandler = new HandWrittenReplyHandler();
+        message = new Message("Hello World");
+    }
+
+    @Benchmark
+    public String generatedProduce() {
+        return generatedPing.produce();
+    }
+
+    @Benchmark
+    public String handWrittenProduce() {
+        return handWrittenPing.produce();
+    }
+
+    @Benchmark
+    public Object generatedAccept() {
+        generatedReplyHandler.accept(message);
+        return message.replied();
+    }
+
+    @Benchmark
+    public Object handWrittenAccept() {
+        handWrittenReplyHandler.accept(message);
+        return message.replied();
+    }
+
+    private static Object define(final String name, final Consumer<ClassBuilder> builder) throws ReflectiveOperationException {
+        final var config = Fixtures.config(false);
+        final var generator = new ClassFileBeanGenerator(config, Fixtures.context(config), null);
+        final var bean = Fixtures.bean(ClassDesc.of(Fixtures.PACKAGE, name), builder);
+        final var bytes = generator.generate(List.of(bean)).getFirst().bytes();
+        return MethodHandles.lookup().defineClass(bytes).getDeclaredConstructor().newInstance();
+    }
+}
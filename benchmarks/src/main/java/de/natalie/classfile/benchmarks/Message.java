@@ -0,0 +1,26 @@
+package de.natalie.classfile.benchmarks;
+
+/**
+ * A stand-in for the Vert.x {@code Message}, so the generated {@code accept} method performs the same
+ * {@code checkcast}/{@code invokevirtual} sequence as the {@code ReplyHandler} of the Vert.x example.
+ */
+public final class Message {
+    private final Object body;
+    private Object reply;
+
+    public Message(final Object body) {
+        this.body = body;
+    }
+
+    public Object body() {
+        return body;
+    }
+
+    public void reply(final Object reply) {
+        this.reply = reply;
+    }
+
+    public Object replied() {
+        return reply;
+    }
+}
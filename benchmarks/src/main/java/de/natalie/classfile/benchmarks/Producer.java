@@ -0,0 +1,5 @@
+package de.natalie.classfile.benchmarks;
+
+public interface Producer {
+    String produce();
+}
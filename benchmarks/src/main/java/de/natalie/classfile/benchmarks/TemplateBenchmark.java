@@ -0,0 +1,68 @@
+package de.natalie.classfile.benchmarks;
+
+import de.natalie.classfile.deployment.builditem.GeneratedClassFileBeanBuildItem;
+import de.natalie.classfile.deployment.builditem.GeneratedClassFileBeanTemplateBuildItem;
+import de.natalie.classfile.deployment.builditem.TemplateVariant;
+import de.natalie.classfile.deployment.generator.ClassFileBeanGenerator;
+import de.natalie.classfile.deployment.generator.GeneratedClassFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.constant.ClassDesc;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static de.natalie.classfile.benchmarks.Fixtures.PACKAGE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Generating a family of reply handlers bean by bean versus stamping them out of one template.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@OutputTimeUnit(MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class TemplateBenchmark {
+    @Param({"10", "1000"})
+    int beanCount;
+
+    private List<GeneratedClassFileBeanBuildItem> beans;
+    private List<GeneratedClassFileBeanTemplateBuildItem> templates;
+    private ClassFileBeanGenerator generator;
+
+    @Setup
+    public void setup() {
+        final var config = Fixtures.config(false);
+        beans = Fixtures.replyHandlers(beanCount);
+        templates = List.of(GeneratedClassFileBeanTemplateBuildItem.builder()
+                                                                   .template(Fixtures.bean(ClassDesc.of(PACKAGE, "ReplyHandlerTemplate"), Fixtures::buildReplyHandler))
+                                                                   .variants(IntStream.range(0, beanCount)
+                                                                                      .mapToObj(index -> new TemplateVariant(ClassDesc.of(PACKAGE, "StampedReplyHandler" + index),
+                                                                                                                             Map.of("channel", "channel-" + index)))
+                                                                                      .toList())
+                                                                   .build());
+        generator = new ClassFileBeanGenerator(config, Fixtures.context(config), null);
+    }
+
+    @Benchmark
+    public List<GeneratedClassFile> build() {
+        return generator.generate(beans);
+    }
+
+    @Benchmark
+    public List<GeneratedClassFile> stamp() {
+        return generator.stamp(templates);
+    }
+}
@@ -1,22 +1,98 @@
 package de.natalie.classfile.deployment;
 
+import de.natalie.classfile.deployment.builditem.ClassFileBeanCacheBuildItem;
+import de.natalie.classfile.deployment.builditem.ClassFileTransformerBuildItem;
+import de.natalie.classfile.deployment.builditem.DeferredClassFileBeanBuildItem;
+import de.natalie.classfile.deployment.builditem.GeneratedBeanRegistryBuildItem;
 import de.natalie.classfile.deployment.builditem.GeneratedClassFileBeanBuildItem;
+import de.natalie.classfile.deployment.builditem.GeneratedClassFileBeanTemplateBuildItem;
+import de.natalie.classfile.deployment.builditem.GeneratedClassFileMetricsBuildItem;
+import de.natalie.classfile.deployment.builditem.GeneratedClassFilesBuildItem;
+import de.natalie.classfile.deployment.builditem.GeneratedInvokerBuildItem;
+import de.natalie.classfile.deployment.builditem.HiddenClassBeanBuildItem;
+import de.natalie.classfile.deployment.builditem.LocalMessageCodecBuildItem;
+import de.natalie.classfile.deployment.builditem.TemplateVariant;
+import de.natalie.classfile.deployment.config.ClassFileBuildTimeConfig;
+import de.natalie.classfile.deployment.generator.ClassFileBeanCache;
+import de.natalie.classfile.deployment.generator.ClassFileBeanConsolidator;
+import de.natalie.classfile.deployment.generator.ClassFileBeanGenerator;
+import de.natalie.classfile.deployment.generator.GeneratedClassFile;
+import de.natalie.classfile.deployment.utils.ClassFileUtils;
+import de.natalie.classfile.deployment.utils.MetricsUtils;
+import de.natalie.classfile.runtime.GeneratedBeanRegistry;
+import de.natalie.classfile.runtime.HiddenClassRecorder;
+import de.natalie.classfile.runtime.LocalMessageCodecRecorder;
+import de.natalie.classfile.runtime.StartupArchiveRecorder;
+import io.quarkus.arc.deployment.AdditionalBeanBuildItem;
 import io.quarkus.arc.deployment.GeneratedBeanBuildItem;
+import io.quarkus.arc.deployment.SynthesisFinishedBuildItem;
+import io.quarkus.arc.deployment.SyntheticBeanBuildItem;
+import io.quarkus.arc.deployment.SyntheticBeansRuntimeInitBuildItem;
+import io.quarkus.arc.deployment.UnremovableBeanBuildItem;
+import io.quarkus.arc.deployment.ValidationPhaseBuildItem;
+import io.quarkus.arc.processor.BeanInfo;
+import io.quarkus.deployment.IsDevelopment;
 import io.quarkus.deployment.annotations.BuildProducer;
 import io.quarkus.deployment.annotations.BuildStep;
+import io.quarkus.deployment.annotations.Consume;
+import io.quarkus.deployment.annotations.Produce;
+import io.quarkus.deployment.annotations.Record;
+import io.quarkus.deployment.builditem.ApplicationIndexBuildItem;
+import io.quarkus.deployment.builditem.BytecodeTransformerBuildItem;
+import io.quarkus.deployment.builditem.CombinedIndexBuildItem;
 import io.quarkus.deployment.builditem.FeatureBuildItem;
+import io.quarkus.deployment.builditem.GeneratedClassBuildItem;
+import io.quarkus.deployment.builditem.ServiceStartBuildItem;
+import io.quarkus.deployment.builditem.ShutdownContextBuildItem;
+import io.quarkus.deployment.builditem.nativeimage.ReflectiveClassBuildItem;
+import io.quarkus.deployment.pkg.builditem.JvmStartupOptimizerArchiveRequestedBuildItem;
+import io.quarkus.deployment.pkg.builditem.OutputTargetBuildItem;
+import io.quarkus.devui.spi.page.CardPageBuildItem;
+import io.quarkus.devui.spi.page.Page;
+import io.quarkus.gizmo.MethodDescriptor;
+import jakarta.inject.Singleton;
+import lombok.extern.jbosslog.JBossLog;
+import org.jboss.jandex.DotName;
 
 import java.lang.classfile.ClassFile;
+import java.lang.classfile.ClassFile.ClassHierarchyResolverOption;
+import java.lang.constant.ClassDesc;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
-import static de.natalie.classfile.deployment.utils.ProcessorUtils.generateConstructor;
-import static de.natalie.classfile.deployment.utils.ProcessorUtils.generateScope;
-import static java.lang.String.format;
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.className;
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.fuse;
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.isInterface;
+import static de.natalie.classfile.deployment.utils.MetricsUtils.metrics;
+import static de.natalie.classfile.deployment.utils.MetricsUtils.writeReport;
+import static de.natalie.classfile.deployment.utils.ProcessorUtils.classFileContext;
+import static de.natalie.classfile.deployment.utils.ProcessorUtils.classHierarchyResolver;
+import static de.natalie.classfile.deployment.utils.ProcessorUtils.classFileContextKey;
+import static de.natalie.classfile.deployment.utils.ProcessorUtils.generateInvoker;
+import static de.natalie.classfile.deployment.utils.ProcessorUtils.invokerCacheKey;
+import static de.natalie.classfile.deployment.utils.ProcessorUtils.generateLocalMessageCodec;
+import static de.natalie.classfile.deployment.utils.ProcessorUtils.generateRegistry;
+import static io.quarkus.deployment.annotations.ExecutionTime.RUNTIME_INIT;
+import static io.quarkus.deployment.annotations.ExecutionTime.STATIC_INIT;
+import static java.util.Comparator.comparing;
+import static java.util.Comparator.comparingInt;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
 
+@JBossLog
 class QuarkusClassFileApiExtensionProcessor {
 
     private static final String FEATURE = "quarkus-class-file-api-extension";
+    private static final String CACHE_DIRECTORY = "class-file-api-cache";
+    private static final String METRICS_KEY = "generatedClasses";
 
     @BuildStep
     FeatureBuildItem feature() {
@@ -24,17 +100,343 @@ class QuarkusClassFileApiExtensionProcessor {
     }
 
     @BuildStep
-    void registerGeneratedBeans(List<GeneratedClassFileBeanBuildItem> generatedBeans,
-                                BuildProducer<GeneratedBeanBuildItem> producer) {
-        generatedBeans.forEach(bean -> {
-            final var desc = bean.classDesc();
-            final var builder = bean.classBuilder();
-            final var bytes = ClassFile.of().build(desc, classBuilder -> {
-                if (nonNull(builder)) builder.accept(classBuilder);
-                if (bean.generateConstructor()) generateConstructor(classBuilder);
-            });
-            final var scopedBytes = nonNull(bean.scope()) ? generateScope(bean.scope(), bean.unremovable(), bytes) : bytes;
-            producer.produce(new GeneratedBeanBuildItem(format("%s.%s", desc.packageName(), desc.displayName()), scopedBytes));
-        });
+    ClassFileBeanCacheBuildItem createCache(ClassFileBuildTimeConfig config, OutputTargetBuildItem outputTarget) {
+        if (!config.cache().enabled()) return null;
+
+        return ClassFileBeanCacheBuildItem.builder()
+                                          .cache(new ClassFileBeanCache(outputTarget.getOutputDirectory().resolve(CACHE_DIRECTORY),
+                                                                        config.cache().maxSize().asLongValue(),
+                                                                        classFileContextKey(config.generation())))
+                                          .build();
+    }
+
+    @BuildStep
+    void registerGeneratedBeans(ClassFileBuildTimeConfig config,
+                                CombinedIndexBuildItem combinedIndex,
+                                Optional<ClassFileBeanCacheBuildItem> cacheItem,
+                                List<GeneratedClassFileBeanBuildItem> generatedBeans,
+                                List<GeneratedClassFileBeanTemplateBuildItem> templates,
+                                List<GeneratedBeanRegistryBuildItem> registries,
+                                BuildProducer<GeneratedBeanBuildItem> producer,
+                                BuildProducer<SyntheticBeanBuildItem> syntheticBeanProducer,
+                                BuildProducer<GeneratedClassFilesBuildItem> generatedClassesProducer,
+                                BuildProducer<GeneratedClassFileMetricsBuildItem> metricsProducer) {
+        final var context = classFileContext(config.generation(), combinedIndex.getIndex());
+        final var cache = cacheItem.map(ClassFileBeanCacheBuildItem::cache).orElse(null);
+
+        final var generator = new ClassFileBeanGenerator(config.generation(), context, cache);
+        final var classDescs = new ArrayList<ClassDesc>();
+        final var metrics = new ArrayList<GeneratedClassFileMetricsBuildItem>();
+        final Consumer<GeneratedClassFile> sink = generated -> {
+            producer.produce(generated.toBuildItem());
+            classDescs.add(generated.classDesc());
+            if (config.metrics().enabled()) metrics.add(metrics(generated, context));
+        };
+
+        if (config.consolidation().enabled()) {
+            final var consolidator = new ClassFileBeanConsolidator(context, config.consolidation().maxGroupSize());
+            final var consolidated = consolidator.consolidate(generatedBeans, generator.generate(generatedBeans));
+            checkRegistries(consolidated.members(), registries);
+            log.infof("Consolidated %d generated beans into shared classes, saving %d classes",
+                      consolidated.members().size(), consolidated.savedClasses());
+            consolidated.classes().forEach(sink);
+            consolidated.members().forEach(member -> syntheticBeanProducer.produce(consolidatedBean(member)));
+        } else {
+            generator.generate(generatedBeans).forEach(sink);
+        }
+        generator.stamp(templates, sink);
+        generatedClassesProducer.produce(GeneratedClassFilesBuildItem.builder().classDescs(classDescs).build());
+        if (nonNull(cache)) cache.evict();
+        metrics.forEach(metricsProducer::produce);
+    }
+
+    /**
+     * Runs after both {@link #registerGeneratedBeans} and {@link #generateDeferredBeans}, so the report covers every
+     * generated class.
+     */
+    @BuildStep
+    @Produce(ServiceStartBuildItem.class)
+    void writeMetricsReport(ClassFileBuildTimeConfig config, OutputTargetBuildItem outputTarget, List<GeneratedClassFileMetricsBuildItem> metrics) {
+        if (!config.metrics().enabled()) return;
+
+        writeReport(outputTarget.getOutputDirectory().resolve(config.metrics().report()), metrics);
+    }
+
+    /**
+     * Fails if a consolidated bean implements the bean type of a registry, since registries only list class beans and
+     * the synthetic bean replacing it would silently be missing.
+     */
+    private static void checkRegistries(final List<ClassFileBeanConsolidator.Member> members, final List<GeneratedBeanRegistryBuildItem> registries) {
+        for (final var member : members) {
+            for (final var registry : registries) {
+                if (member.interfaces().contains(registry.beanType())) {
+                    throw new IllegalStateException("Generated bean %s implements %s, the bean type of the registry %s, but consolidated beans are not listed by registries; disable quarkus.class-file-api.consolidation.enabled"
+                                                            .formatted(className(member.bean().classDesc()), className(registry.beanType()),
+                                                                       className(registry.classDesc())));
+                }
+            }
+        }
+    }
+
+    private static SyntheticBeanBuildItem consolidatedBean(final ClassFileBeanConsolidator.Member member) {
+        final var implementation = className(member.implementation());
+        final var configurator = SyntheticBeanBuildItem.create(DotName.createSimple(implementation))
+                                                       .types(Object.class)
+                                                       .scope(member.bean().scope())
+                                                       .identifier(className(member.bean().classDesc()))
+                                                       .creator(creator -> creator.returnValue(
+                                                               creator.newInstance(MethodDescriptor.ofConstructor(implementation, int.class),
+                                                                                   creator.load(member.id()))));
+        member.interfaces().forEach(type -> configurator.addType(DotName.createSimple(className(type))));
+        if (member.bean().unremovable()) configurator.unremovable();
+        return configurator.done();
+    }
+
+    @BuildStep
+    @Record(STATIC_INIT)
+    void preloadForStartupArchive(Optional<JvmStartupOptimizerArchiveRequestedBuildItem> archiveRequested,
+                                  List<GeneratedClassFilesBuildItem> generatedClasses,
+                                  StartupArchiveRecorder recorder) {
+        final var classNames = generatedClasses.stream()
+                                               .flatMap(generated -> generated.classDescs().stream())
+                                               .map(ClassFileUtils::className)
+                                               .toList();
+        if (archiveRequested.isEmpty() || classNames.isEmpty()) return;
+
+        recorder.preload(classNames);
+    }
+
+    @BuildStep
+    void registerDeferredBeans(List<DeferredClassFileBeanBuildItem> deferredBeans, BuildProducer<SyntheticBeanBuildItem> producer) {
+        for (final var deferred : deferredBeans) {
+            final var bean = deferred.bean();
+            if (deferred.beanTypes().isEmpty() || !bean.injectedFields().isEmpty()) {
+                throw new IllegalArgumentException("Deferred bean %s must declare bean types and no injected fields".formatted(className(bean.classDesc())));
+            }
+
+            final var implementation = className(bean.classDesc());
+            final var configurator = SyntheticBeanBuildItem.create(DotName.createSimple(className(deferred.beanTypes().getFirst())))
+                                                           .types(Object.class)
+                                                           .scope(bean.scope())
+                                                           .identifier(implementation)
+                                                           .creator(creator -> creator.returnValue(creator.newInstance(MethodDescriptor.ofConstructor(implementation))));
+            deferred.beanTypes().forEach(type -> configurator.addType(DotName.createSimple(className(type))));
+            // lets generateDeferredBeans recognize this very bean after unused bean removal
+            configurator.addType(DotName.createSimple(implementation));
+            deferred.qualifiers().forEach(configurator::addQualifier);
+            if (bean.unremovable()) configurator.unremovable();
+            producer.produce(configurator.done());
+        }
+    }
+
+    @BuildStep
+    void generateDeferredBeans(ClassFileBuildTimeConfig config,
+                               CombinedIndexBuildItem combinedIndex,
+                               ApplicationIndexBuildItem applicationIndex,
+                               ValidationPhaseBuildItem validationPhase,
+                               Optional<ClassFileBeanCacheBuildItem> cacheItem,
+                               List<DeferredClassFileBeanBuildItem> deferredBeans,
+                               BuildProducer<GeneratedClassBuildItem> producer,
+                               BuildProducer<GeneratedClassFilesBuildItem> generatedClassesProducer,
+                               BuildProducer<GeneratedClassFileMetricsBuildItem> metricsProducer) {
+        if (deferredBeans.isEmpty()) return;
+
+        // synthetic bean identifiers are hashed by ArC, so retained beans are recognized by their generated class, which is one of their bean types
+        final var syntheticBeans = validationPhase.getContext().beans().syntheticBeans().collect();
+        final var retained = deferredBeans.stream()
+                                          .filter(deferred -> syntheticBeans.stream().anyMatch(bean -> bean.hasType(deferredClassName(deferred))))
+                                          .toList();
+        log.debugf("Generating %d of %d deferred Class-File beans, the others were removed as unused", retained.size(), deferredBeans.size());
+
+        final var context = classFileContext(config.generation(), combinedIndex.getIndex());
+        final var cache = cacheItem.map(ClassFileBeanCacheBuildItem::cache).orElse(null);
+        final var generator = new ClassFileBeanGenerator(config.generation(), context, cache);
+        final var generatedClasses = generator.generate(retained.stream().map(DeferredClassFileBeanBuildItem::bean).toList());
+        final var classDescs = GeneratedClassFilesBuildItem.builder();
+        for (var index = 0; index < retained.size(); index++) {
+            // ArC defines the synthetic bean next to its implementation class, the first bean type, which must see the generated class
+            final var implementation = DotName.createSimple(className(retained.get(index).beanTypes().getFirst()));
+            final var applicationClass = nonNull(applicationIndex.getIndex().getClassByName(implementation));
+            final var generated = generatedClasses.get(index);
+            producer.produce(new GeneratedClassBuildItem(applicationClass, className(generated.classDesc()), generated.bytes()));
+            classDescs.classDesc(generated.classDesc());
+            if (config.metrics().enabled()) metricsProducer.produce(metrics(generated, context));
+        }
+        generatedClassesProducer.produce(classDescs.build());
+        if (nonNull(cache)) cache.evict();
+    }
+
+    @BuildStep
+    void indexDeferredBeanQualifiers(List<DeferredClassFileBeanBuildItem> deferredBeans, BuildProducer<AdditionalBeanBuildItem> producer) {
+        deferredBeans.stream()
+                     .flatMap(deferred -> deferred.qualifiers().stream())
+                     .distinct()
+                     .forEach(qualifier -> producer.produce(AdditionalBeanBuildItem.builder().addBeanClass(qualifier).build()));
+    }
+
+    private static DotName deferredClassName(final DeferredClassFileBeanBuildItem deferred) {
+        return DotName.createSimple(className(deferred.bean().classDesc()));
+    }
+
+    @BuildStep
+    void generateInvokers(CombinedIndexBuildItem combinedIndex,
+                          List<GeneratedInvokerBuildItem> invokers,
+                          BuildProducer<GeneratedClassFileBeanBuildItem> producer) {
+        for (final var invoker : invokers) {
+            final var beanInterface = isInterface(combinedIndex.getIndex(), invoker.beanType());
+            producer.produce(GeneratedClassFileBeanBuildItem.builder()
+                                                            .scope(Singleton.class)
+                                                            .unremovable(true)
+                                                            .generateConstructor(true)
+                                                            .classDesc(invoker.classDesc())
+                                                            .classBuilder(builder -> generateInvoker(builder,
+                                                                                                     invoker.invokerInterface(),
+                                                                                                     invoker.beanType(),
+                                                                                                     beanInterface,
+                                                                                                     invoker.methodName(),
+                                                                                                     invoker.methodType()))
+                                                            .cacheKey(invokerCacheKey(invoker.classDesc(),
+                                                                                      invoker.invokerInterface(),
+                                                                                      invoker.beanType(),
+                                                                                      beanInterface,
+                                                                                      invoker.methodName(),
+                                                                                      invoker.methodType()))
+                                                            .build());
+        }
+    }
+
+    @BuildStep
+    void generateRegistries(ClassFileBuildTimeConfig config,
+                            CombinedIndexBuildItem combinedIndex,
+                            SynthesisFinishedBuildItem synthesisFinished,
+                            List<GeneratedClassFileBeanBuildItem> generatedBeans,
+                            List<GeneratedClassFileBeanTemplateBuildItem> templates,
+                            List<GeneratedBeanRegistryBuildItem> registries,
+                            BuildProducer<GeneratedClassBuildItem> producer,
+                            BuildProducer<ReflectiveClassBuildItem> reflectiveProducer) {
+        if (registries.isEmpty()) return;
+
+        final var context = classFileContext(config.generation(), combinedIndex.getIndex());
+        final var declarationOrder = new HashMap<DotName, Integer>();
+        Stream.concat(generatedBeans.stream().map(GeneratedClassFileBeanBuildItem::classDesc),
+                      templates.stream().flatMap(template -> template.variants().stream()).map(TemplateVariant::classDesc))
+              .forEach(desc -> declarationOrder.putIfAbsent(DotName.createSimple(className(desc)), declarationOrder.size()));
+
+        for (final var registry : registries) {
+            final var beanIdentifiers = synthesisFinished.beanStream()
+                                                         .classBeans()
+                                                         .withBeanType(DotName.createSimple(className(registry.beanType())))
+                                                         .filter(bean -> declarationOrder.containsKey(bean.getBeanClass()))
+                                                         .stream()
+                                                         .sorted(comparing(bean -> declarationOrder.get(bean.getBeanClass())))
+                                                         .map(BeanInfo::getIdentifier)
+                                                         .toList();
+            final var bytes = context.build(registry.classDesc(), builder -> generateRegistry(builder, registry.classDesc(), beanIdentifiers));
+            producer.produce(new GeneratedClassBuildItem(true, className(registry.classDesc()), bytes));
+            // GeneratedBeanRegistry.load instantiates the registry reflectively by its name
+            reflectiveProducer.produce(ReflectiveClassBuildItem.builder(className(registry.classDesc()))
+                                                               .constructors()
+                                                               .reason(GeneratedBeanRegistry.class.getName())
+                                                               .build());
+        }
+    }
+
+    @BuildStep
+    void unremovableRegistryBeans(List<GeneratedBeanRegistryBuildItem> registries, BuildProducer<UnremovableBeanBuildItem> producer) {
+        registries.forEach(registry -> producer.produce(UnremovableBeanBuildItem.beanTypes(DotName.createSimple(className(registry.beanType())))));
+    }
+
+    @BuildStep
+    void generateLocalMessageCodecs(ClassFileBuildTimeConfig config,
+                                    CombinedIndexBuildItem combinedIndex,
+                                    List<LocalMessageCodecBuildItem> codecs,
+                                    BuildProducer<GeneratedClassBuildItem> producer,
+                                    BuildProducer<ReflectiveClassBuildItem> reflectiveProducer) {
+        if (codecs.isEmpty()) return;
+
+        final var context = classFileContext(config.generation(), combinedIndex.getIndex());
+        for (final var codec : codecs) {
+            final var name = className(codec.classDesc());
+            final var bytes = context.build(codec.classDesc(), builder -> generateLocalMessageCodec(builder, codec.payloadType(), name));
+            producer.produce(new GeneratedClassBuildItem(true, name, bytes));
+            // LocalMessageCodecs loads the payload type and instantiates the codec reflectively by their names
+            reflectiveProducer.produce(ReflectiveClassBuildItem.builder(name)
+                                                               .constructors()
+                                                               .reason(LocalMessageCodecRecorder.class.getName())
+                                                               .build());
+            reflectiveProducer.produce(ReflectiveClassBuildItem.builder(className(codec.payloadType()))
+                                                               .constructors(false)
+                                                               .reason(LocalMessageCodecRecorder.class.getName())
+                                                               .build());
+        }
+    }
+
+    @BuildStep
+    @Record(RUNTIME_INIT)
+    @Consume(SyntheticBeansRuntimeInitBuildItem.class)
+    void registerLocalMessageCodecs(List<LocalMessageCodecBuildItem> codecs, LocalMessageCodecRecorder recorder, ShutdownContextBuildItem shutdown) {
+        if (codecs.isEmpty()) return;
+
+        final var codecClasses = new LinkedHashMap<String, String>();
+        codecs.forEach(codec -> codecClasses.put(className(codec.payloadType()), className(codec.classDesc())));
+        recorder.registerCodecs(codecClasses, shutdown);
+    }
+
+    @BuildStep
+    @Record(RUNTIME_INIT)
+    void registerHiddenClassBeans(List<HiddenClassBeanBuildItem> hiddenClassBeans,
+                                  HiddenClassRecorder recorder,
+                                  BuildProducer<SyntheticBeanBuildItem> producer) {
+        for (final var hiddenClassBean : hiddenClassBeans) {
+            final var configurator = SyntheticBeanBuildItem.configure(DotName.createSimple(className(hiddenClassBean.beanType())))
+                                                           .scope(isNull(hiddenClassBean.scope()) ? Singleton.class : hiddenClassBean.scope())
+                                                           .supplier(recorder.specialize(className(hiddenClassBean.specialization())))
+                                                           .setRuntimeInit();
+            if (hiddenClassBean.unremovable()) configurator.unremovable();
+            producer.produce(configurator.done());
+        }
+    }
+
+    @BuildStep
+    void transformClasses(ClassFileBuildTimeConfig config,
+                          CombinedIndexBuildItem combinedIndex,
+                          List<ClassFileTransformerBuildItem> transformers,
+                          BuildProducer<BytecodeTransformerBuildItem> producer) {
+        if (transformers.isEmpty()) return;
+
+        // the generation options, e.g. debug-elements=drop-debug, apply to generated classes only, not to transformed ones
+        final var context = ClassFile.of(ClassHierarchyResolverOption.of(classHierarchyResolver(config.generation(), combinedIndex.getIndex())));
+        transformers.stream()
+                    .sorted(comparingInt(ClassFileTransformerBuildItem::priority).reversed())
+                    .collect(groupingBy(transformer -> className(transformer.classDesc()),
+                                        LinkedHashMap::new,
+                                        mapping(ClassFileTransformerBuildItem::transform, toList())))
+                    .forEach((className, transforms) -> {
+                        final var transform = fuse(transforms);
+                        producer.produce(new BytecodeTransformerBuildItem.Builder()
+                                                 .setClassToTransform(className)
+                                                 .setInputTransformer((_, bytes) -> context.transformClass(context.parse(bytes), transform))
+                                                 .build());
+                    });
+    }
+
+    @BuildStep(onlyIf = IsDevelopment.class)
+    CardPageBuildItem metricsPage(ClassFileBuildTimeConfig config, List<GeneratedClassFileMetricsBuildItem> metrics) {
+        if (!config.metrics().enabled()) return null;
+
+        final var card = new CardPageBuildItem();
+        card.addBuildTimeData(METRICS_KEY, metrics.stream().map(MetricsUtils::summary).toList());
+        card.addPage(Page.tableDataPageBuilder("Generated classes")
+                         .icon("font-awesome-solid:microchip")
+                         .staticLabel(String.valueOf(metrics.size()))
+                         .buildTimeDataKey(METRICS_KEY)
+                         .showColumn("className")
+                         .showColumn("generationMicros")
+                         .showColumn("byteSize")
+                         .showColumn("constantPoolSize")
+                         .showColumn("methodCount")
+                         .showColumn("largestMethodCodeLength")
+                         .showColumn("inliningOutliers"));
+        return card;
     }
 }
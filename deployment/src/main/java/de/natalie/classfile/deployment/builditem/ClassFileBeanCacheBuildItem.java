@@ -0,0 +1,25 @@
+package de.natalie.classfile.deployment.builditem;
+
+import de.natalie.classfile.deployment.generator.ClassFileBeanCache;
+import io.quarkus.builder.item.SimpleBuildItem;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * A {@link SimpleBuildItem} holding the {@link ClassFileBeanCache} of the build, only present if the cache is enabled.
+ *
+ * <p>Both {@link GeneratedClassFileBeanBuildItem}s and {@link DeferredClassFileBeanBuildItem}s are generated through
+ * this instance, so they share its hit and miss counters and its eviction.
+ */
+@Getter
+@Builder
+@RequiredArgsConstructor(access = PRIVATE)
+public final class ClassFileBeanCacheBuildItem extends SimpleBuildItem {
+    /**
+     * The cache, configured with the output directory, maximum size and {@code ClassFile} context of the build.
+     */
+    private final ClassFileBeanCache cache;
+}
@@ -0,0 +1,51 @@
+package de.natalie.classfile.deployment.builditem;
+
+import io.quarkus.builder.item.MultiBuildItem;
+import io.quarkus.deployment.builditem.BytecodeTransformerBuildItem;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.ClassTransform;
+import java.lang.constant.ClassDesc;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * A {@link MultiBuildItem} rewriting an existing class with a {@link ClassTransform} of the Class-File API.
+ *
+ * <p>All transforms registered for the same class are fused into a single {@link ClassFile#transformClass} pass,
+ * which is handed to Quarkus as one {@link BytecodeTransformerBuildItem} input transformer. The class is parsed once,
+ * and methods left untouched by every transform are copied from the original class file without being re-encoded.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * ClassFileTransformerBuildItem.builder()
+ *                              .classDesc(ClassDesc.of("com.example.Greeter"))
+ *                              .transform(ClassTransform.dropping(element -> element instanceof SourceFileAttribute))
+ *                              .build();
+ * }</pre>
+ *
+ * @see ClassTransform
+ * @see BytecodeTransformerBuildItem
+ */
+@Getter
+@Builder
+@RequiredArgsConstructor(access = PRIVATE)
+public final class ClassFileTransformerBuildItem extends MultiBuildItem {
+    /**
+     * The class descriptor of the class to transform.
+     */
+    private final ClassDesc classDesc;
+
+    /**
+     * The transform applied to the class. It sees the elements already produced by transforms of higher priority.
+     */
+    private final ClassTransform transform;
+
+    /**
+     * Transforms with a higher priority are applied first, transforms of the same priority in declaration order.
+     */
+    private final int priority;
+}
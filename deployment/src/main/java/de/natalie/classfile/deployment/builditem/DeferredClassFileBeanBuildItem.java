@@ -0,0 +1,66 @@
+package de.natalie.classfile.deployment.builditem;
+
+import io.quarkus.arc.deployment.SyntheticBeanBuildItem;
+import io.quarkus.builder.item.MultiBuildItem;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Singular;
+
+import java.lang.annotation.Annotation;
+import java.lang.constant.ClassDesc;
+import java.util.List;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * A {@link MultiBuildItem} declaring a generated CDI bean whose bytecode is only generated if ArC keeps the bean.
+ *
+ * <p>Unlike a {@link GeneratedClassFileBeanBuildItem}, the bean is declared to ArC by its metadata alone, as a
+ * {@link SyntheticBeanBuildItem} with the given bean types, qualifiers and the scope of {@code bean}. The
+ * {@code classBuilder} callback of {@code bean} runs after unused bean removal, and only for beans which are still
+ * present. Catalogs of many removable beans then only pay for the beans the application actually injects.
+ *
+ * <p>As the class does not exist during bean discovery, the bean can only be injected through {@code beanTypes},
+ * and ArC does not process annotations on the class. The generated class is added as a bean type as well, which only
+ * serves to tell which of the deferred beans ArC kept. The class needs a public no-arg constructor, e.g. from
+ * {@code generateConstructor(true)}, and must not declare {@code injectedFields}. Dependencies can be resolved with
+ * {@code BootstrapUtils} instead.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * DeferredClassFileBeanBuildItem.builder()
+ *                               .bean(GeneratedClassFileBeanBuildItem.builder()
+ *                                                                    .generateConstructor(true)
+ *                                                                    .scope(ApplicationScoped.class)
+ *                                                                    .classDesc(ClassDesc.of("de.example.Ping"))
+ *                                                                    .classBuilder(ExtensionProcessor::buildPing)
+ *                                                                    .build())
+ *                               .beanType(classDesc(Producer.class))
+ *                               .build();
+ * }</pre>
+ *
+ * @see GeneratedClassFileBeanBuildItem
+ */
+@Getter
+@Builder
+@RequiredArgsConstructor(access = PRIVATE)
+public final class DeferredClassFileBeanBuildItem extends MultiBuildItem {
+    /**
+     * The generated class. Its scope, unremovable flag, options and cache key apply as for a regular generated bean.
+     */
+    private final GeneratedClassFileBeanBuildItem bean;
+
+    /**
+     * The bean types, usually interfaces implemented by the generated class. {@code Object} is always added.
+     * The first type is used as the implementation class of the synthetic bean, so client proxies extend it, and
+     * the generated class is defined by the same class loader. If the first type comes from a dependency, the
+     * generated class must not reference application classes.
+     */
+    @Singular private final List<ClassDesc> beanTypes;
+
+    /**
+     * Qualifiers without members. Beans without qualifiers get {@code @Default}.
+     */
+    @Singular private final List<Class<? extends Annotation>> qualifiers;
+}
@@ -0,0 +1,44 @@
+package de.natalie.classfile.deployment.builditem;
+
+import de.natalie.classfile.runtime.GeneratedBeanRegistry;
+import io.quarkus.builder.item.MultiBuildItem;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.constant.ClassDesc;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * A {@link MultiBuildItem} requesting a {@link GeneratedBeanRegistry} of all generated beans implementing a type.
+ *
+ * <p>The registry class is generated after bean discovery and lists the build time identifiers of every bean
+ * declared by a {@link GeneratedClassFileBeanBuildItem} whose bean types contain {@code beanType}.
+ * A recorder can then iterate the beans without resolving them by type at startup:
+ *
+ * <pre>{@code
+ * for (final var handle : GeneratedBeanRegistry.<EventHandler>load("de.example.EventHandlers").instances()) {
+ *     ...
+ * }
+ * }</pre>
+ *
+ * <p>Beans listed in a registry are marked as unremovable.
+ *
+ * @see GeneratedBeanRegistry
+ * @see GeneratedClassFileBeanBuildItem
+ */
+@Getter
+@Builder
+@RequiredArgsConstructor(access = PRIVATE)
+public final class GeneratedBeanRegistryBuildItem extends MultiBuildItem {
+    /**
+     * The class descriptor of the generated registry class.
+     */
+    private final ClassDesc classDesc;
+
+    /**
+     * The type which all beans of the registry implement, e.g. an interface of the runtime module.
+     */
+    private final ClassDesc beanType;
+}
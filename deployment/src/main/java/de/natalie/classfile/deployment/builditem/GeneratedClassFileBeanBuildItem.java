@@ -7,10 +7,13 @@ import jakarta.enterprise.context.Dependent;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Singular;
 
 import java.lang.annotation.Annotation;
 import java.lang.classfile.ClassBuilder;
+import java.lang.classfile.ClassFile;
 import java.lang.constant.ClassDesc;
+import java.util.List;
 import java.util.function.Consumer;
 
 import static lombok.AccessLevel.PRIVATE;
@@ -39,7 +42,10 @@ import static lombok.AccessLevel.PRIVATE;
  *     <li>Generate the bytecode for the class using the provided {@code classBuilder}</li>
  *     <li>Mark it with the specified CDI scope (default: {@code Dependent})</li>
  *     <li>Mark it as unremovable using the Annotation {@code Unremovable})</li>
+ *     <li>Add the declared class annotations, e.g. {@code @Named}</li>
  *     <li>Optionally generate a default constructor</li>
+ *     <li>Optionally generate an {@code @Inject} constructor for the declared {@link InjectedField}s</li>
+ *     <li>Optionally weave JFR events around its public methods</li>
  *     <li>Register it as a CDI bean during build time</li>
  * </ul>
  *
@@ -76,9 +82,46 @@ public final class GeneratedClassFileBeanBuildItem extends MultiBuildItem {
      */
     private final ClassDesc classDesc;
 
+    /**
+     * Dependencies injected through a generated {@code @Inject} constructor and stored in {@code private final}
+     * fields. Builder callbacks read them with {@link InjectedField#load}.
+     * If {@code generateConstructor} is set as well, the no-arg constructor is kept for client proxies.
+     */
+    @Singular private final List<InjectedField> injectedFields;
+
     /**
      * A callback that receives a {@link ClassBuilder} and emits the class's bytecode structure.
      * This is typically a method reference such as {@code MyProcessor::buildMyHandler}.
+     * The scope annotations are emitted by the extension in the same pass, so the callback must not
+     * add a {@code RuntimeVisibleAnnotations} attribute to the class itself, or the build fails.
+     * Other class annotations are declared with {@code classAnnotations} instead.
      */
     private final Consumer<ClassBuilder> classBuilder;
+
+    /**
+     * Additional class annotations such as {@code @Named}, qualifiers or interceptor bindings. They are emitted
+     * together with the scope and {@code @Unremovable} in the single {@code RuntimeVisibleAnnotations} attribute
+     * of the class.
+     */
+    @Singular private final List<java.lang.classfile.Annotation> classAnnotations;
+
+    /**
+     * Additional {@link ClassFile.Option}s applied on top of the shared {@link ClassFile} context
+     * configured under {@code quarkus.class-file-api.generation}, e.g. {@code DebugElementsOption.DROP_DEBUG}.
+     */
+    @Singular private final List<ClassFile.Option> classFileOptions;
+
+    /**
+     * An optional key describing everything the {@code classBuilder} output depends on, e.g. a version or
+     * a hash of its inputs. Used by the on-disk bytecode cache ({@code quarkus.class-file-api.cache.enabled}).
+     * If absent, the key is derived from the jar or class directory declaring a non-capturing builder;
+     * builders capturing state are then never cached. Builders reading static or configuration state must set it.
+     */
+    private final String cacheKey;
+
+    /**
+     * If {@code true}, every public instance method of the class records a {@code GeneratedMethodEvent} with its
+     * duration. Overridden for all beans by {@code quarkus.class-file-api.generation.jfr-events} if it is set.
+     */
+    private final boolean jfrEvents;
 }
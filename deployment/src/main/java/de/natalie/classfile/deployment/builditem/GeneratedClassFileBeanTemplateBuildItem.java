@@ -0,0 +1,52 @@
+package de.natalie.classfile.deployment.builditem;
+
+import io.quarkus.builder.item.MultiBuildItem;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Singular;
+
+import java.lang.classfile.ClassTransform;
+import java.util.List;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * A {@link MultiBuildItem} generating a family of near-identical CDI beans from one template.
+ *
+ * <p>The {@code template} is generated once, exactly like a {@link GeneratedClassFileBeanBuildItem}, but is not
+ * registered as a bean itself. Every {@link TemplateVariant} is then stamped out of the parsed template with a
+ * {@link ClassTransform} renaming the class and swapping constants, without running the {@code classBuilder} callback
+ * or the annotation pass again. Methods not touched by a variant are copied from the template without being
+ * re-encoded.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * GeneratedClassFileBeanTemplateBuildItem.builder()
+ *                                        .template(GeneratedClassFileBeanBuildItem.builder()
+ *                                                                                 .scope(ApplicationScoped.class)
+ *                                                                                 .classDesc(ClassDesc.of("de.example.HandlerTemplate"))
+ *                                                                                 .classBuilder(ExtensionProcessor::buildHandler)
+ *                                                                                 .build())
+ *                                        .variant(new TemplateVariant(ClassDesc.of("de.example.OrderHandler"), Map.of("channel", "orders")))
+ *                                        .variant(new TemplateVariant(ClassDesc.of("de.example.PaymentHandler"), Map.of("channel", "payments")))
+ *                                        .build();
+ * }</pre>
+ *
+ * @see TemplateVariant
+ * @see GeneratedClassFileBeanBuildItem
+ */
+@Getter
+@Builder
+@RequiredArgsConstructor(access = PRIVATE)
+public final class GeneratedClassFileBeanTemplateBuildItem extends MultiBuildItem {
+    /**
+     * The template class. Its scope, flags, injected fields and options apply to all variants.
+     */
+    private final GeneratedClassFileBeanBuildItem template;
+
+    /**
+     * The classes stamped out of the template, each registered as a CDI bean.
+     */
+    @Singular private final List<TemplateVariant> variants;
+}
@@ -0,0 +1,75 @@
+package de.natalie.classfile.deployment.builditem;
+
+import io.quarkus.builder.item.MultiBuildItem;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Singular;
+
+import java.lang.constant.ClassDesc;
+import java.time.Duration;
+import java.util.Map;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * A {@link MultiBuildItem} describing the build time cost and the shape of a class generated from a
+ * {@link GeneratedClassFileBeanBuildItem}.
+ *
+ * <p>One item is produced per generated class if {@code quarkus.class-file-api.metrics.enabled} is set.
+ * Other extensions can consume these items to report on or to enforce budgets for their generated code.
+ *
+ * @see GeneratedClassFileBeanBuildItem
+ */
+@Getter
+@Builder
+@RequiredArgsConstructor(access = PRIVATE)
+public final class GeneratedClassFileMetricsBuildItem extends MultiBuildItem {
+    /**
+     * The class descriptor of the generated class.
+     */
+    private final ClassDesc classDesc;
+
+    /**
+     * The time spent generating the class, including the annotation pass.
+     * {@link Duration#ZERO} if the class was taken from the bytecode cache.
+     */
+    private final Duration generationTime;
+
+    /**
+     * The time spent in the annotation pass, which emits the {@code @Inject} constructor with its qualifiers, the scope
+     * and the {@code Unremovable} annotation.
+     */
+    private final Duration annotationTime;
+
+    /**
+     * Whether the class was taken from the on-disk bytecode cache.
+     */
+    private final boolean cached;
+
+    /**
+     * The size of the final class file in bytes.
+     */
+    private final int byteSize;
+
+    /**
+     * The number of constant pool entries of the class file.
+     */
+    private final int constantPoolSize;
+
+    /**
+     * The number of methods declared by the class.
+     */
+    private final int methodCount;
+
+    /**
+     * The code length in bytes of the largest method of the class.
+     */
+    private final int largestMethodCodeLength;
+
+    /**
+     * Methods (name and descriptor) whose code length exceeds HotSpot's {@code FreqInlineSize},
+     * mapped to their code length. These methods are not inlined by the JIT even when they are hot.
+     */
+    @Singular private final Map<String, Integer> inliningOutliers;
+}
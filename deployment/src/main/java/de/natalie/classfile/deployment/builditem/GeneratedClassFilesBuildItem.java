@@ -0,0 +1,32 @@
+package de.natalie.classfile.deployment.builditem;
+
+import io.quarkus.builder.item.MultiBuildItem;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Singular;
+
+import java.lang.constant.ClassDesc;
+import java.util.List;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * A {@link MultiBuildItem} listing the classes of one generation step, in the order in which they were added to the
+ * build output: one item for the {@link GeneratedClassFileBeanBuildItem}s and
+ * {@link GeneratedClassFileBeanTemplateBuildItem}s, followed by one for the retained
+ * {@link DeferredClassFileBeanBuildItem}s, if there are any.
+ *
+ * <p>The order only depends on the declaration order of the build items, never on parallel generation or the cache,
+ * so the concatenated items can be used as a stable class list, e.g. for preloading the classes while an AppCDS or AOT
+ * cache archive is dumped.
+ */
+@Getter
+@Builder
+@RequiredArgsConstructor(access = PRIVATE)
+public final class GeneratedClassFilesBuildItem extends MultiBuildItem {
+    /**
+     * The class descriptors of the classes generated by this step, in load order.
+     */
+    @Singular private final List<ClassDesc> classDescs;
+}
@@ -0,0 +1,68 @@
+package de.natalie.classfile.deployment.builditem;
+
+import io.quarkus.builder.item.MultiBuildItem;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * A {@link MultiBuildItem} generating an invoker which calls one method of a CDI bean without reflection.
+ *
+ * <p>The invoker implements {@code invokerInterface}, which must declare exactly one abstract method, and is
+ * registered as an unremovable {@code @Singleton} bean. Its implementation resolves the target bean once, through a
+ * dynamic constant, and calls the target method with a direct {@code invokevirtual} or {@code invokeinterface}.
+ * Arguments and the return value are passed through as they are, so a primitive specialized interface such as
+ * {@code IntBinaryOperator} never boxes. Reference types are cast where the signatures differ, while primitive types
+ * of both signatures must match exactly.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * GeneratedInvokerBuildItem.builder()
+ *                          .classDesc(ClassDesc.of("de.example.AddInvoker"))
+ *                          .invokerInterface(IntBinaryOperator.class)
+ *                          .beanType(classDesc(Calculator.class))
+ *                          .methodName("add")
+ *                          .methodType(MethodTypeDesc.of(CD_int, CD_int, CD_int))
+ *                          .build();
+ * }</pre>
+ *
+ * <p>The invoker is generated like a {@link GeneratedClassFileBeanBuildItem}, so it can be looked up by its own
+ * class or by {@code invokerInterface}.
+ */
+@Getter
+@Builder
+@RequiredArgsConstructor(access = PRIVATE)
+public final class GeneratedInvokerBuildItem extends MultiBuildItem {
+    /**
+     * The class descriptor of the generated invoker class.
+     */
+    private final ClassDesc classDesc;
+
+    /**
+     * The functional interface implemented by the invoker, e.g. {@code IntBinaryOperator} or an interface of the
+     * runtime module.
+     */
+    private final Class<?> invokerInterface;
+
+    /**
+     * The type of the target bean, which declares or inherits the target method. Interfaces are called with
+     * {@code invokeinterface}. Types missing from the Jandex index are loaded through the context class loader to tell,
+     * and fail the build if they cannot be loaded either.
+     */
+    private final ClassDesc beanType;
+
+    /**
+     * The name of the target method.
+     */
+    private final String methodName;
+
+    /**
+     * The descriptor of the target method.
+     */
+    private final MethodTypeDesc methodType;
+}
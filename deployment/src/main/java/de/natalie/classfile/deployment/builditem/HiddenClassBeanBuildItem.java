@@ -0,0 +1,56 @@
+package de.natalie.classfile.deployment.builditem;
+
+import io.quarkus.arc.deployment.SyntheticBeanBuildItem;
+import io.quarkus.builder.item.MultiBuildItem;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.annotation.Annotation;
+import java.lang.constant.ClassDesc;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * A {@link MultiBuildItem} declaring a CDI bean implemented by a hidden class, which is generated at runtime and
+ * specialized for a value only known during {@code RUNTIME_INIT}, such as tenant configuration.
+ *
+ * <p>The bean is registered as a runtime initialized {@link SyntheticBeanBuildItem}. When the application starts,
+ * {@code HiddenClassRecorder} instantiates the {@code HiddenClassSpecialization}, asks it for its key and generates the
+ * specialized class with a {@code HiddenClassSpecializer}. The bean always resolves to that one instance.
+ * Hidden classes are not supported in native images.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * HiddenClassBeanBuildItem.builder()
+ *                         .specialization(classDesc(DiscountSpecialization.class))
+ *                         .beanType(classDesc(Discount.class))
+ *                         .build();
+ * }</pre>
+ *
+ * @see de.natalie.classfile.runtime.HiddenClassSpecialization
+ */
+@Getter
+@Builder
+@RequiredArgsConstructor(access = PRIVATE)
+public final class HiddenClassBeanBuildItem extends MultiBuildItem {
+    /**
+     * The {@code HiddenClassSpecialization} building the class. It needs a public no-arg constructor.
+     */
+    private final ClassDesc specialization;
+
+    /**
+     * The bean type, the interface implemented by the specialized class.
+     */
+    private final ClassDesc beanType;
+
+    /**
+     * The scope of the bean, {@code @Singleton} if not set.
+     */
+    private final Class<? extends Annotation> scope;
+
+    /**
+     * Whether the bean is kept even if nothing injects it.
+     */
+    private final boolean unremovable;
+}
@@ -0,0 +1,62 @@
+package de.natalie.classfile.deployment.builditem;
+
+import java.lang.classfile.Annotation;
+import java.lang.classfile.ClassBuilder;
+import java.lang.classfile.CodeBuilder;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.util.List;
+
+import static java.lang.classfile.ClassFile.ACC_PUBLIC;
+import static java.lang.constant.ConstantDescs.CD_void;
+import static java.lang.constant.ConstantDescs.INIT_NAME;
+
+/**
+ * A dependency of a generated bean which is injected through its constructor and stored in a
+ * {@code private final} field.
+ *
+ * <p>The generated class receives an {@code @Inject} constructor taking all declared dependencies in order.
+ * Builder callbacks read a dependency with {@link #load(CodeBuilder, ClassDesc)}, which is a plain
+ * {@code getfield} instead of a container lookup per call, and can emit a factory for further instances sharing the
+ * dependencies with {@link #withCopyMethod}.
+ *
+ * @param name       the name of the field holding the dependency
+ * @param type       the type of the dependency
+ * @param qualifiers the CDI qualifiers of the injection point, e.g. {@code @Named("x")}
+ */
+public record InjectedField(String name, ClassDesc type, List<Annotation> qualifiers) {
+    public InjectedField(final String name, final ClassDesc type) {
+        this(name, type, List.of());
+    }
+
+    /**
+     * Pushes the value of this dependency onto the operand stack of a non-static method of {@code owner}.
+     */
+    public CodeBuilder load(final CodeBuilder builder, final ClassDesc owner) {
+        return builder.aload(builder.receiverSlot()).getfield(owner, name, type);
+    }
+
+    /**
+     * Emits a public method {@code name} on {@code owner} which returns a new instance, created through the generated
+     * {@code @Inject} constructor with the dependencies of the instance it is called on.
+     *
+     * <p>The new instance is not a bean: it shares the injected dependencies, but none of the other instance state of
+     * the bean, and is neither intercepted nor destroyed by the container.
+     *
+     * @param classBuilder the builder of the generated bean
+     * @param owner        the generated bean class
+     * @param name         the name of the method, e.g. {@code copy}
+     * @param returnType   the declared return type, e.g. an interface declaring the method
+     * @param fields       the injected fields of the bean, in the order they were declared
+     */
+    public static ClassBuilder withCopyMethod(final ClassBuilder classBuilder, final ClassDesc owner, final String name,
+                                              final ClassDesc returnType, final List<InjectedField> fields) {
+        final var constructorDesc = MethodTypeDesc.of(CD_void, fields.stream().map(InjectedField::type).toArray(ClassDesc[]::new));
+        return classBuilder.withMethodBody(name, MethodTypeDesc.of(returnType), ACC_PUBLIC, code -> {
+            code.new_(owner).dup();
+            fields.forEach(field -> field.load(code, owner));
+            code.invokespecial(owner, INIT_NAME, constructorDesc)
+                .areturn();
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package de.natalie.classfile.deployment.builditem;
+
+import io.quarkus.builder.item.MultiBuildItem;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.constant.ClassDesc;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * A {@link MultiBuildItem} requesting a pass-through Vert.x {@code MessageCodec} for a payload type of the event bus.
+ *
+ * <p>The generated codec's {@code transform} only casts the payload to {@code payloadType}, so local sends, requests and
+ * replies hand over the same instance instead of copying it. The codec is registered as the default codec of the
+ * payload type at {@code RUNTIME_INIT}. It does not support the wire format, so payloads of this type cannot be sent
+ * to a clustered event bus.
+ *
+ * <p>Requires {@code quarkus-vertx} at runtime. Payload types must be immutable or must not be modified after they
+ * were sent.
+ */
+@Getter
+@Builder
+@RequiredArgsConstructor(access = PRIVATE)
+public final class LocalMessageCodecBuildItem extends MultiBuildItem {
+    /**
+     * The class descriptor of the generated codec class.
+     */
+    private final ClassDesc classDesc;
+
+    /**
+     * The type of the payloads handled by the codec.
+     */
+    private final ClassDesc payloadType;
+}
@@ -0,0 +1,23 @@
+package de.natalie.classfile.deployment.builditem;
+
+import java.lang.constant.ClassDesc;
+import java.util.Map;
+
+/**
+ * A class stamped out of a {@link GeneratedClassFileBeanTemplateBuildItem}.
+ *
+ * <p>The variant is a copy of the template class under a new name. Within method bodies, {@code ldc} string constants
+ * found in {@code strings} are replaced, and class references of {@code new}, {@code checkcast}, {@code instanceof},
+ * {@code ldc} and the owners of field and method instructions found in {@code classes} are remapped. References to the
+ * template class itself are always remapped to {@code classDesc}, including those in stack map frames, which are generated
+ * again. Field and method descriptors are copied unchanged.
+ *
+ * @param classDesc the class descriptor of the variant
+ * @param strings   string constants of the template mapped to their replacement
+ * @param classes   classes referenced by the template mapped to their replacement
+ */
+public record TemplateVariant(ClassDesc classDesc, Map<String, String> strings, Map<ClassDesc, ClassDesc> classes) {
+    public TemplateVariant(final ClassDesc classDesc, final Map<String, String> strings) {
+        this(classDesc, strings, Map.of());
+    }
+}
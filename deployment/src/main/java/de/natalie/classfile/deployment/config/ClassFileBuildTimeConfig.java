@@ -0,0 +1,157 @@
+package de.natalie.classfile.deployment.config;
+
+import io.quarkus.runtime.annotations.ConfigPhase;
+import io.quarkus.runtime.annotations.ConfigRoot;
+import io.quarkus.runtime.configuration.MemorySize;
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.lang.classfile.ClassFile.DeadCodeOption;
+import java.lang.classfile.ClassFile.DebugElementsOption;
+import java.lang.classfile.ClassFile.StackMapsOption;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * Build time configuration of the Class-File API extension.
+ */
+@ConfigRoot(phase = ConfigPhase.BUILD_TIME)
+@ConfigMapping(prefix = "quarkus.class-file-api")
+public interface ClassFileBuildTimeConfig {
+    /**
+     * Configuration of the bytecode generation of {@code GeneratedClassFileBeanBuildItem}s.
+     */
+    GenerationConfig generation();
+
+    /**
+     * Configuration of the on-disk cache of generated bytecode.
+     */
+    CacheConfig cache();
+
+    /**
+     * Configuration of the build time metrics of generated classes.
+     */
+    MetricsConfig metrics();
+
+    /**
+     * Configuration of the consolidation of small generated beans into shared classes.
+     */
+    ConsolidationConfig consolidation();
+
+    interface GenerationConfig {
+        /**
+         * Whether the generated beans are built in parallel on a dedicated fork-join pool.
+         * The generated beans are still produced in the order in which they were declared.
+         */
+        @WithDefault("false")
+        boolean parallel();
+
+        /**
+         * The number of beans which are generated concurrently if {@code parallel} is enabled.
+         * Defaults to the number of available processors.
+         */
+        OptionalInt parallelism();
+
+        /**
+         * Whether stack maps are generated for the methods of the generated classes.
+         * Stack maps are mandatory for class files of version 50 and above, so dropping them is only
+         * sensible if the classes are post-processed by another tool.
+         */
+        @WithDefault("stack-maps-when-required")
+        StackMapsOption stackMaps();
+
+        /**
+         * Whether debug elements (local variable tables, line numbers, ...) are kept in the generated classes.
+         * Production builds may drop them to reduce the size of the generated bytecode.
+         */
+        @WithDefault("pass-debug")
+        DebugElementsOption debugElements();
+
+        /**
+         * Whether unreachable code in the generated methods is patched into {@code nop}/{@code athrow} sequences.
+         */
+        @WithDefault("patch-dead-code")
+        DeadCodeOption deadCode();
+
+        /**
+         * Whether the method bodies of generated classes are run through a peephole optimizer, which removes
+         * redundant locals and stack shuffling, folds constants and hoists empty arrays into static constants.
+         * Methods still above HotSpot's inlining thresholds afterwards are logged.
+         */
+        @WithDefault("false")
+        boolean optimize();
+
+        /**
+         * Whether JFR events recording the duration of calls are woven into the public methods of generated beans.
+         * If set, it applies to all beans and overrides their {@code jfrEvents} flag. If not set, only beans declared
+         * with {@code jfrEvents(true)} are instrumented.
+         */
+        Optional<Boolean> jfrEvents();
+
+        /**
+         * How the class hierarchy is resolved during stack map generation.
+         */
+        @WithDefault("index")
+        HierarchyResolution classHierarchyResolution();
+    }
+
+    interface CacheConfig {
+        /**
+         * Whether the bytecode of generated beans is cached in the build output directory and reused by later
+         * builds (including dev mode reloads) as long as the fingerprint of the bean does not change.
+         */
+        @WithDefault("false")
+        boolean enabled();
+
+        /**
+         * The maximum size of the cache. The least recently used entries are evicted once it is exceeded.
+         */
+        @WithDefault("64M")
+        MemorySize maxSize();
+    }
+
+    interface MetricsConfig {
+        /**
+         * Whether build time metrics are collected for every generated class. The metrics are published as
+         * {@code GeneratedClassFileMetricsBuildItem}s, written to a JSON report and summarized in the Dev UI.
+         */
+        @WithDefault("false")
+        boolean enabled();
+
+        /**
+         * The path of the JSON report, relative to the build output directory.
+         */
+        @WithDefault("class-file-api-metrics.json")
+        String report();
+    }
+
+    interface ConsolidationConfig {
+        /**
+         * Whether small, compatible generated beans are merged into shared implementation classes to reduce the
+         * number of loaded classes. Each bean becomes a synthetic bean selecting its behaviour by an id.
+         * Consolidated beans can only be injected through their interfaces, not through their own class, and are not
+         * listed by bean registries. The build fails if a consolidated bean implements the bean type of a registry.
+         */
+        @WithDefault("false")
+        boolean enabled();
+
+        /**
+         * The maximum number of beans merged into one class.
+         */
+        @WithDefault("32")
+        int maxGroupSize();
+    }
+
+    enum HierarchyResolution {
+        /**
+         * Resolve classes from the Jandex index of the application and fall back to parsing class resources
+         * of the system class loader. Classes are never loaded.
+         */
+        INDEX,
+
+        /**
+         * Like {@code INDEX}, but finally fall back to loading classes through the context class loader.
+         */
+        CLASS_LOADING
+    }
+}
@@ -0,0 +1,226 @@
+package de.natalie.classfile.deployment.generator;
+
+import de.natalie.classfile.deployment.builditem.GeneratedClassFileBeanBuildItem;
+import de.natalie.classfile.deployment.builditem.InjectedField;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.jbosslog.JBossLog;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.lang.classfile.Annotation;
+import java.lang.classfile.ClassBuilder;
+import java.lang.classfile.ClassFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A content-addressed on-disk cache of generated class bytes, shared between builds of the same project.
+ *
+ * <p>Every {@link GeneratedClassFileBeanBuildItem} is keyed by a SHA-256 fingerprint of its class descriptor,
+ * scope, flags, class annotations, injected fields, class file options, the configuration of the shared {@link ClassFile} context and a content key
+ * for its {@code classBuilder}. Every key also covers the Java version and the classes of this extension, whose weaving,
+ * optimization and annotation passes are part of the cached bytes, so upgrading either invalidates the cache. The content key is either supplied by the extension via {@code cacheKey} or
+ * computed from the whole jar or class directory declaring a non-capturing builder, so changes to helpers called by the
+ * builder invalidate it as well. Beans whose builder captures state and have no explicit {@code cacheKey} are never
+ * cached, since their output cannot be fingerprinted. Builders reading static or configuration state must supply a
+ * {@code cacheKey} covering it.
+ *
+ * <p>Entries are evicted least-recently-used first once the cache exceeds its maximum size.
+ */
+@JBossLog
+@RequiredArgsConstructor
+public final class ClassFileBeanCache {
+    private static final String CACHE_VERSION = "2";
+    private static final String CLASS_SUFFIX = ".class";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final long maxSize;
+    private final String contextKey;
+
+    /**
+     * The fingerprint of the code source of this extension, or an empty optional if it cannot be read.
+     */
+    private static final Optional<String> EXTENSION_KEY = codeSourceKey(ClassFileBeanCache.class);
+
+    /**
+     * The fingerprints of the code sources declaring builders, computed once per build.
+     */
+    private final Map<Optional<CodeSource>, Optional<String>> builderKeys = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Computes the cache key of the given bean, or an empty optional if the bean cannot be cached.
+     */
+    public Optional<String> key(final GeneratedClassFileBeanBuildItem bean) {
+        if (EXTENSION_KEY.isEmpty()) return Optional.empty();
+        return contentKey(bean).map(content -> sha256(String.join("\n",
+                                                                  CACHE_VERSION,
+                                                                  EXTENSION_KEY.get(),
+                                                                  Runtime.version().toString(),
+                                                                  contextKey,
+                                                                  bean.classDesc().descriptorString(),
+                                                                  isNull(bean.scope()) ? "" : bean.scope().getName(),
+                                                                  String.valueOf(bean.generateConstructor()),
+                                                                  String.valueOf(bean.unremovable()),
+                                                                  String.valueOf(bean.jfrEvents()),
+                                                                  bean.classAnnotations().stream()
+                                                                      .map(ClassFileBeanCache::annotationKey)
+                                                                      .collect(Collectors.joining(",")),
+                                                                  bean.injectedFields().stream()
+                                                                      .map(ClassFileBeanCache::fieldKey)
+                                                                      .collect(Collectors.joining(",")),
+                                                                  bean.classFileOptions().stream()
+                                                                      .map(ClassFileBeanCache::optionKey)
+                                                                      .collect(Collectors.joining(",")),
+                                                                  content)));
+    }
+
+    public Optional<byte[]> get(final String key) {
+        final var file = directory.resolve(key + CLASS_SUFFIX);
+        try {
+            final var bytes = Files.readAllBytes(file);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            hits.increment();
+            return Optional.of(bytes);
+        } catch (IOException _) {
+            misses.increment();
+            return Optional.empty();
+        }
+    }
+
+    public void put(final String key, final byte[] bytes) {
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+            Files.write(temp, bytes);
+            Files.move(temp, directory.resolve(key + CLASS_SUFFIX), REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.debugf(e, "Unable to write %s to the Class-File bean cache", key);
+            if (nonNull(temp)) delete(temp);
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Evicts the least recently used entries until the cache fits its maximum size and logs the hit/miss counters.
+     */
+    public void evict() {
+        if (!Files.isDirectory(directory)) return;
+        try (final var files = Files.list(directory)) {
+            final var entries = files.filter(file -> file.getFileName().toString().endsWith(CLASS_SUFFIX))
+                                     .map(Path::toFile)
+                                     .sorted(Comparator.comparingLong(File::lastModified))
+                                     .toList();
+            var size = entries.stream().mapToLong(File::length).sum();
+            var evicted = 0;
+            for (final var entry : entries) {
+                if (size <= maxSize) break;
+                size -= entry.length();
+                if (entry.delete()) evicted++;
+            }
+            log.debugf("Class-File bean cache: %d hits, %d misses, %d evicted", hits(), misses(), evicted);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Optional<String> contentKey(final GeneratedClassFileBeanBuildItem bean) {
+        if (nonNull(bean.cacheKey())) return Optional.of(bean.cacheKey());
+        final Consumer<ClassBuilder> builder = bean.classBuilder();
+        if (isNull(builder)) return Optional.of("");
+        if (builder.getClass().getDeclaredFields().length > 0) return Optional.empty();
+
+        // lambdas share the protection domain of their declaring class
+        final var source = Optional.ofNullable(builder.getClass().getProtectionDomain().getCodeSource());
+        return builderKeys.computeIfAbsent(source, _ -> codeSourceKey(builder.getClass()));
+    }
+
+    /**
+     * Hashes the jar or class directory the given class was loaded from, i.e. all code it may call into.
+     */
+    private static Optional<String> codeSourceKey(final Class<?> type) {
+        try {
+            final var source = type.getProtectionDomain().getCodeSource();
+            if (isNull(source)) return Optional.empty();
+
+            final var location = Path.of(source.getLocation().toURI());
+            if (!Files.isDirectory(location)) return Optional.of(sha256(Files.readAllBytes(location)));
+            try (final var files = Files.walk(location)) {
+                final var digest = MessageDigest.getInstance("SHA-256");
+                for (final var file : files.filter(Files::isRegularFile).sorted().toList()) {
+                    digest.update(location.relativize(file).toString().getBytes(UTF_8));
+                    digest.update(Files.readAllBytes(file));
+                }
+                return Optional.of(HexFormat.of().formatHex(digest.digest()));
+            }
+        } catch (IOException | URISyntaxException | NoSuchAlgorithmException | RuntimeException e) {
+            log.debugf(e, "Unable to fingerprint the code source of %s, its generated beans are not cached", type.getName());
+            return Optional.empty();
+        }
+    }
+
+    private static void delete(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debugf(e, "Unable to delete %s from the Class-File bean cache", file);
+        }
+    }
+
+    private static String fieldKey(final InjectedField field) {
+        return field.name() + ":" + field.type().descriptorString() + field.qualifiers();
+    }
+
+    private static String annotationKey(final Annotation annotation) {
+        return annotation.classSymbol().descriptorString() + annotation.elements().stream()
+                                                                       .map(element -> element.name().stringValue() + "=" + element.value())
+                                                                       .toList();
+    }
+
+    private static String optionKey(final ClassFile.Option option) {
+        return option instanceof Enum<?> constant ? constant.name() : option.getClass().getName();
+    }
+
+    private static String sha256(final String value) {
+        return sha256(value.getBytes(UTF_8));
+    }
+
+    private static String sha256(final byte[] value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
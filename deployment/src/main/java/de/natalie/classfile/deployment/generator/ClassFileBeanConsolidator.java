@@ -0,0 +1,241 @@
+package de.natalie.classfile.deployment.generator;
+
+import de.natalie.classfile.deployment.builditem.GeneratedClassFileBeanBuildItem;
+import io.quarkus.arc.Unremovable;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.classfile.Attributes;
+import java.lang.classfile.ClassBuilder;
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.ClassModel;
+import java.lang.classfile.CodeBuilder;
+import java.lang.classfile.Label;
+import java.lang.classfile.MethodModel;
+import java.lang.classfile.TypeKind;
+import java.lang.classfile.instruction.SwitchCase;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static de.natalie.classfile.deployment.generator.ClassFileTemplate.remap;
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.classDesc;
+import static de.natalie.classfile.deployment.utils.MetricsUtils.FREQ_INLINE_SIZE;
+import static de.natalie.classfile.deployment.utils.MetricsUtils.codeLength;
+import static de.natalie.classfile.deployment.utils.MetricsUtils.methodName;
+import static java.lang.classfile.ClassFile.ACC_FINAL;
+import static java.lang.classfile.ClassFile.ACC_PRIVATE;
+import static java.lang.classfile.ClassFile.ACC_PUBLIC;
+import static java.lang.classfile.ClassFile.ACC_STATIC;
+import static java.lang.constant.ConstantDescs.CD_Object;
+import static java.lang.constant.ConstantDescs.CD_String;
+import static java.lang.constant.ConstantDescs.CD_int;
+import static java.lang.constant.ConstantDescs.CD_void;
+import static java.lang.constant.ConstantDescs.INIT_NAME;
+import static java.lang.constant.ConstantDescs.MTD_void;
+import static java.util.Objects.isNull;
+
+/**
+ * Merges small, compatible generated beans into shared implementation classes.
+ *
+ * <p>Beans are compatible if they live in the same package and implement the same interfaces. A bean is small if it
+ * declares no fields, no constructor other than the generated no-arg constructor, no static or private methods, no
+ * annotations besides its scope, and at most {@code FreqInlineSize} (325) bytes of code in total.
+ *
+ * <p>Each method of a merged bean is copied into the shared class as a private method. For every distinct method
+ * signature the shared class declares a public dispatcher, which selects the copy by a {@code tableswitch} on the
+ * {@code id} the instance was created with. The beans themselves are registered as synthetic beans creating
+ * {@code new Shared(id)}.
+ *
+ * @see de.natalie.classfile.deployment.config.ClassFileBuildTimeConfig.ConsolidationConfig
+ */
+@RequiredArgsConstructor
+public final class ClassFileBeanConsolidator {
+    private static final String ID_FIELD = "id";
+    private static final String CLASS_NAME = "ConsolidatedBeans";
+
+    private final ClassFile context;
+    private final int maxGroupSize;
+
+    /**
+     * A bean merged into a shared class.
+     *
+     * @param bean           the declaration of the bean
+     * @param implementation the shared class implementing the bean
+     * @param id             the id selecting the behaviour of the bean in the shared class
+     * @param interfaces     the interfaces implemented by the bean
+     */
+    public record Member(GeneratedClassFileBeanBuildItem bean, ClassDesc implementation, int id, List<ClassDesc> interfaces) {
+    }
+
+    /**
+     * @param classes      the classes to register: all beans which were not merged, followed by the shared classes
+     * @param members      the merged beans, to be registered as synthetic beans
+     * @param savedClasses the number of classes saved by merging
+     */
+    public record Result(List<GeneratedClassFile> classes, List<Member> members, int savedClasses) {
+    }
+
+    /**
+     * @param beans     the declared beans
+     * @param generated the classes generated for {@code beans}, in the same order
+     */
+    public Result consolidate(final List<GeneratedClassFileBeanBuildItem> beans, final List<GeneratedClassFile> generated) {
+        final var groups = new LinkedHashMap<List<ClassDesc>, List<Integer>>();
+        final var models = new ClassModel[generated.size()];
+        for (var index = 0; index < generated.size(); index++) {
+            models[index] = context.parse(generated.get(index).bytes());
+            if (!consolidatable(beans.get(index), models[index])) continue;
+
+            final var key = new ArrayList<ClassDesc>();
+            key.add(ClassDesc.of(models[index].thisClass().asSymbol().packageName(), CLASS_NAME));
+            models[index].interfaces().forEach(entry -> key.add(entry.asSymbol()));
+            groups.computeIfAbsent(key, _ -> new ArrayList<>()).add(index);
+        }
+
+        final var merged = new boolean[generated.size()];
+        final var sharedClasses = new ArrayList<GeneratedClassFile>();
+        final var members = new ArrayList<Member>();
+        for (final var entry : groups.entrySet()) {
+            final var indices = entry.getValue();
+            final var interfaces = entry.getKey().subList(1, entry.getKey().size());
+            for (var from = 0; from < indices.size(); from += maxGroupSize) {
+                final var group = indices.subList(from, Math.min(from + maxGroupSize, indices.size()));
+                if (group.size() < 2) continue;
+
+                final var desc = ClassDesc.of(entry.getKey().getFirst().packageName(), CLASS_NAME + sharedClasses.size());
+                final var groupModels = group.stream().map(index -> models[index]).toList();
+                sharedClasses.add(merge(desc, interfaces, groupModels));
+                for (var id = 0; id < group.size(); id++) {
+                    merged[group.get(id)] = true;
+                    members.add(new Member(beans.get(group.get(id)), desc, id, interfaces));
+                }
+            }
+        }
+
+        final var classes = new ArrayList<GeneratedClassFile>();
+        for (var index = 0; index < generated.size(); index++) {
+            if (!merged[index]) classes.add(generated.get(index));
+        }
+        classes.addAll(sharedClasses);
+        return new Result(classes, members, members.size() - sharedClasses.size());
+    }
+
+    private static boolean consolidatable(final GeneratedClassFileBeanBuildItem bean, final ClassModel model) {
+        if (!bean.injectedFields().isEmpty() || !model.fields().isEmpty()) return false;
+        if (model.superclass().map(entry -> !entry.asSymbol().equals(CD_Object)).orElse(true)) return false;
+        if (!onlyScopeAnnotations(bean, model)) return false;
+
+        var codeLength = 0;
+        for (final var method : model.methods()) {
+            if (method.methodName().equalsString(INIT_NAME)) {
+                if (!method.methodTypeSymbol().equals(MTD_void)) return false;
+                continue;
+            }
+            if ((method.flags().flagsMask() & (ACC_STATIC | ACC_PRIVATE)) != 0 || method.code().isEmpty()) return false;
+            if (method.findAttribute(Attributes.runtimeVisibleAnnotations()).isPresent()
+                || method.findAttribute(Attributes.runtimeVisibleParameterAnnotations()).isPresent()) return false;
+            codeLength += codeLength(method);
+        }
+        return codeLength <= FREQ_INLINE_SIZE;
+    }
+
+    private static boolean onlyScopeAnnotations(final GeneratedClassFileBeanBuildItem bean, final ClassModel model) {
+        final var allowed = Set.of(classDesc(bean.scope()), classDesc(Unremovable.class));
+        return model.findAttribute(Attributes.runtimeVisibleAnnotations())
+                    .map(attribute -> attribute.annotations().stream().allMatch(annotation -> allowed.contains(annotation.classSymbol())))
+                    .orElse(true);
+    }
+
+    private GeneratedClassFile merge(final ClassDesc desc, final List<ClassDesc> interfaces, final List<ClassModel> models) {
+        final var start = System.nanoTime();
+        final var bytes = context.build(desc, classBuilder -> {
+            classBuilder.withFlags(ACC_PUBLIC)
+                        .withSuperclass(CD_Object)
+                        .withInterfaceSymbols(interfaces)
+                        .withField(ID_FIELD, CD_int, ACC_PRIVATE | ACC_FINAL);
+            generateConstructors(classBuilder, desc);
+
+            final var dispatchers = new LinkedHashMap<String, MethodModel[]>();
+            for (var id = 0; id < models.size(); id++) {
+                final var model = models.get(id);
+                final var transform = remap(Map.of(), Map.of(model.thisClass().asSymbol(), desc));
+                for (final var method : model.methods()) {
+                    if (method.methodName().equalsString(INIT_NAME)) continue;
+                    classBuilder.withMethod(privateName(method, id), method.methodTypeSymbol(), ACC_PRIVATE,
+                                            methodBuilder -> methodBuilder.transformCode(method.code().orElseThrow(), transform));
+                    dispatchers.computeIfAbsent(methodName(method), _ -> new MethodModel[models.size()])[id] = method;
+                }
+            }
+            dispatchers.values().forEach(methods -> generateDispatcher(classBuilder, desc, methods));
+        });
+        return new GeneratedClassFile(desc, bytes, System.nanoTime() - start, 0, false);
+    }
+
+    /**
+     * Emits {@code Shared(int id)} and a no-arg constructor for client proxies, which never dispatch themselves.
+     */
+    private static void generateConstructors(final ClassBuilder classBuilder, final ClassDesc desc) {
+        classBuilder.withMethodBody(INIT_NAME, MethodTypeDesc.of(CD_void, CD_int), ACC_PUBLIC,
+                                    code -> code.aload(0)
+                                                .invokespecial(CD_Object, INIT_NAME, MTD_void)
+                                                .aload(0)
+                                                .iload(1)
+                                                .putfield(desc, ID_FIELD, CD_int)
+                                                .return_());
+        classBuilder.withMethodBody(INIT_NAME, MTD_void, ACC_PUBLIC,
+                                    code -> code.aload(0)
+                                                .iconst_m1()
+                                                .invokespecial(desc, INIT_NAME, MethodTypeDesc.of(CD_void, CD_int))
+                                                .return_());
+    }
+
+    private static void generateDispatcher(final ClassBuilder classBuilder, final ClassDesc desc, final MethodModel[] methods) {
+        final var method = Arrays.stream(methods).filter(Objects::nonNull).findFirst().orElseThrow();
+        final var name = method.methodName().stringValue();
+        final var type = method.methodTypeSymbol();
+        final var flags = method.flags().flagsMask() & ~ACC_FINAL;
+
+        classBuilder.withMethodBody(name, type, flags, code -> {
+            final var unsupported = code.newLabel();
+            final var labels = new Label[methods.length];
+            final var cases = new ArrayList<SwitchCase>(methods.length);
+            for (var id = 0; id < methods.length; id++) {
+                labels[id] = isNull(methods[id]) ? unsupported : code.newLabel();
+                cases.add(SwitchCase.of(id, labels[id]));
+            }
+
+            code.aload(0).getfield(desc, ID_FIELD, CD_int).tableswitch(0, methods.length - 1, unsupported, cases);
+            for (var id = 0; id < methods.length; id++) {
+                if (isNull(methods[id])) continue;
+                code.labelBinding(labels[id]).aload(0);
+                loadParameters(code, type);
+                code.invokespecial(desc, privateName(methods[id], id), type)
+                    .return_(TypeKind.from(type.returnType()));
+            }
+
+            final var error = classDesc(AbstractMethodError.class);
+            code.labelBinding(unsupported)
+                .new_(error)
+                .dup()
+                .ldc(name + type.descriptorString())
+                .invokespecial(error, INIT_NAME, MethodTypeDesc.of(CD_void, CD_String))
+                .athrow();
+        });
+    }
+
+    private static void loadParameters(final CodeBuilder code, final MethodTypeDesc type) {
+        for (var index = 0; index < type.parameterCount(); index++) {
+            code.loadLocal(TypeKind.from(type.parameterType(index)), code.parameterSlot(index));
+        }
+    }
+
+    private static String privateName(final MethodModel method, final int id) {
+        return method.methodName().stringValue() + "$" + id;
+    }
+}
@@ -0,0 +1,187 @@
+package de.natalie.classfile.deployment.generator;
+
+import de.natalie.classfile.deployment.builditem.GeneratedClassFileBeanBuildItem;
+import de.natalie.classfile.deployment.builditem.GeneratedClassFileBeanTemplateBuildItem;
+import de.natalie.classfile.deployment.config.ClassFileBuildTimeConfig.GenerationConfig;
+import io.quarkus.arc.deployment.GeneratedBeanBuildItem;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.classfile.Annotation;
+import java.lang.classfile.Attributes;
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.ClassModel;
+import java.lang.classfile.attribute.RuntimeVisibleAnnotationsAttribute;
+import java.lang.constant.ClassDesc;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static de.natalie.classfile.deployment.utils.ProcessorUtils.generateConstructor;
+import static de.natalie.classfile.deployment.utils.ProcessorUtils.generateInjectionConstructor;
+import static de.natalie.classfile.deployment.utils.ProcessorUtils.classAnnotations;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Turns {@link GeneratedClassFileBeanBuildItem}s into {@link GeneratedClassFile}s, which are then registered
+ * as {@link GeneratedBeanBuildItem}s.
+ *
+ * <p>The beans are either generated one after another on the build thread or, if enabled via
+ * {@code quarkus.class-file-api.generation.parallel}, concurrently on a dedicated {@link ForkJoinPool}.
+ * In both modes the result list has the same order as the declared beans, so the build output stays reproducible.
+ *
+ * <p>Beans of a {@link GeneratedClassFileBeanTemplateBuildItem} are stamped out of their generated template with a
+ * {@link ClassFileTemplate} instead of being built one by one.
+ *
+ * <p>With {@code quarkus.class-file-api.generation.optimize}, every generated class is passed through the
+ * {@link ClassFileOptimizer} before it is cached or stamped. JFR events are woven in by the {@link ClassFileEventWeaver}
+ * before that, for beans declared with {@code jfrEvents} or for all beans with
+ * {@code quarkus.class-file-api.generation.jfr-events}.
+ *
+ * <p>If a {@link ClassFileBeanCache} is given, beans with an unchanged fingerprint are read from the cache
+ * instead of running their {@code classBuilder} callback again.
+ */
+@RequiredArgsConstructor
+public final class ClassFileBeanGenerator {
+    private final GenerationConfig config;
+    private final ClassFile context;
+    private final ClassFileBeanCache cache;
+
+    public List<GeneratedClassFile> generate(final List<GeneratedClassFileBeanBuildItem> beans) {
+        final var parallelism = parallelism();
+        if (!config.parallel() || parallelism <= 1 || beans.size() <= 1) return beans.stream().map(this::generate).toList();
+        try (final var pool = new ForkJoinPool(parallelism)) {
+            return generateParallel(pool, beans);
+        }
+    }
+
+    /**
+     * Generates each template once and stamps out its variants, in declaration order. The templates themselves
+     * are not part of the result.
+     */
+    public List<GeneratedClassFile> stamp(final List<GeneratedClassFileBeanTemplateBuildItem> templates) {
+        final var results = new ArrayList<GeneratedClassFile>();
+        stamp(templates, results::add);
+        return results;
+    }
+
+    /**
+     * Like {@link #stamp(List)}, but hands every variant to {@code sink} as soon as it is stamped out.
+     */
+    public void stamp(final List<GeneratedClassFileBeanTemplateBuildItem> templates, final Consumer<GeneratedClassFile> sink) {
+        for (final var template : templates) {
+            final var generated = generate(template.template());
+            final var templateContext = classFileContext(template.template());
+            final var classFileTemplate = new ClassFileTemplate(templateContext, generated.bytes());
+            for (final var variant : template.variants()) {
+                try {
+                    final var start = System.nanoTime();
+                    final var bytes = classFileTemplate.stamp(variant);
+                    sink.accept(new GeneratedClassFile(variant.classDesc(), bytes, System.nanoTime() - start, 0, false));
+                } catch (RuntimeException e) {
+                    throw new ClassFileGenerationException(variant.classDesc(), e);
+                }
+            }
+        }
+    }
+
+    private int parallelism() {
+        return config.parallelism().orElseGet(Runtime.getRuntime()::availableProcessors);
+    }
+
+    private List<GeneratedClassFile> generateParallel(final ForkJoinPool pool, final List<GeneratedClassFileBeanBuildItem> beans) {
+        final var classLoader = Thread.currentThread().getContextClassLoader();
+        final var tasks = beans.stream().<Callable<GeneratedClassFile>>map(bean -> () -> {
+            Thread.currentThread().setContextClassLoader(classLoader);
+            return generate(bean);
+        }).toList();
+
+        return collect(pool.invokeAll(tasks));
+    }
+
+    private static List<GeneratedClassFile> collect(final List<Future<GeneratedClassFile>> futures) {
+        final var results = new ArrayList<GeneratedClassFile>(futures.size());
+        RuntimeException failure = null;
+        for (final var future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                final var cause = e.getCause() instanceof RuntimeException exception ? exception : new IllegalStateException(e.getCause());
+                if (isNull(failure)) failure = cause;
+                else failure.addSuppressed(cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while generating Class-File beans", e);
+            }
+        }
+        if (nonNull(failure)) throw failure;
+        return results;
+    }
+
+    private GeneratedClassFile generate(final GeneratedClassFileBeanBuildItem bean) {
+        final var desc = bean.classDesc();
+        try {
+            final var key = nonNull(cache) ? cache.key(bean) : Optional.<String>empty();
+            final var cached = key.flatMap(value -> cache.get(value));
+            if (cached.isPresent()) return new GeneratedClassFile(desc, cached.get(), 0, 0, true);
+
+            final var generated = build(bean);
+            key.ifPresent(value -> cache.put(value, generated.bytes()));
+            return generated;
+        } catch (RuntimeException e) {
+            throw new ClassFileGenerationException(desc, e);
+        }
+    }
+
+    private GeneratedClassFile build(final GeneratedClassFileBeanBuildItem bean) {
+        final var builder = bean.classBuilder();
+        final var beanContext = classFileContext(bean);
+        final var annotationNanos = new long[1];
+        final var classAnnotations = classAnnotations(bean.scope(), bean.unremovable(), bean.classAnnotations());
+
+        final var start = System.nanoTime();
+        final var built = beanContext.build(bean.classDesc(), classBuilder -> {
+            // the annotation pass: the scope, @Unremovable and the declared class annotations, emitted before the
+            // callback runs, so an attribute of the callback replaces them and is detected below
+            final var classAnnotationStart = System.nanoTime();
+            if (!classAnnotations.isEmpty()) classBuilder.with(RuntimeVisibleAnnotationsAttribute.of(classAnnotations));
+            annotationNanos[0] = System.nanoTime() - classAnnotationStart;
+
+            if (nonNull(builder)) builder.accept(classBuilder);
+            if (bean.generateConstructor()) generateConstructor(classBuilder);
+
+            // and the @Inject constructor with its qualifiers
+            final var annotationStart = System.nanoTime();
+            if (!bean.injectedFields().isEmpty()) generateInjectionConstructor(classBuilder, bean.classDesc(), bean.injectedFields());
+            annotationNanos[0] += System.nanoTime() - annotationStart;
+        });
+        if (!classAnnotations.isEmpty()) checkClassAnnotations(beanContext.parse(built), classAnnotations);
+        final var woven = config.jfrEvents().orElse(bean.jfrEvents()) ? new ClassFileEventWeaver(beanContext).weave(built) : built;
+        final var bytes = config.optimize() ? new ClassFileOptimizer(beanContext).optimize(woven) : woven;
+        return new GeneratedClassFile(bean.classDesc(), bytes, System.nanoTime() - start, annotationNanos[0], false);
+    }
+
+    /**
+     * Fails if the {@code classBuilder} callback added its own {@code RuntimeVisibleAnnotations} attribute, which
+     * silently replaces the one holding the scope and the declared class annotations.
+     */
+    private static void checkClassAnnotations(final ClassModel model, final List<Annotation> expected) {
+        final var attributes = model.findAttributes(Attributes.runtimeVisibleAnnotations());
+        final var emitted = attributes.stream().flatMap(attribute -> attribute.annotations().stream()).map(Annotation::classSymbol).toList();
+        if (attributes.size() != 1 || !emitted.equals(expected.stream().map(Annotation::classSymbol).toList())) {
+            throw new IllegalStateException("The classBuilder callback added a RuntimeVisibleAnnotations attribute %s, which replaces the scope and class annotations %s; declare class annotations with classAnnotation(...) instead"
+                                                    .formatted(emitted.stream().map(ClassDesc::displayName).toList(),
+                                                               expected.stream().map(annotation -> annotation.classSymbol().displayName()).toList()));
+        }
+    }
+
+    private ClassFile classFileContext(final GeneratedClassFileBeanBuildItem bean) {
+        final var options = bean.classFileOptions();
+        return options.isEmpty() ? context : context.withOptions(options.toArray(ClassFile.Option[]::new));
+    }
+}
@@ -0,0 +1,141 @@
+package de.natalie.classfile.deployment.generator;
+
+import de.natalie.classfile.runtime.GeneratedMethodEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.jbosslog.JBossLog;
+
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.CodeBuilder;
+import java.lang.classfile.CodeElement;
+import java.lang.classfile.CodeTransform;
+import java.lang.classfile.Label;
+import java.lang.classfile.MethodModel;
+import java.lang.classfile.MethodTransform;
+import java.lang.classfile.TypeKind;
+import java.lang.classfile.instruction.ReturnInstruction;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static de.natalie.classfile.deployment.generator.ConsumerDispatch.BODY_SUFFIX;
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.classDesc;
+import static java.lang.classfile.ClassFile.ACC_ABSTRACT;
+import static java.lang.classfile.ClassFile.ACC_BRIDGE;
+import static java.lang.classfile.ClassFile.ACC_PRIVATE;
+import static java.lang.classfile.ClassFile.ACC_PUBLIC;
+import static java.lang.classfile.ClassFile.ACC_STATIC;
+import static java.lang.classfile.ClassFile.ACC_SYNTHETIC;
+import static java.lang.constant.ConstantDescs.CD_Class;
+import static java.lang.constant.ConstantDescs.CD_String;
+import static java.lang.constant.ConstantDescs.CD_void;
+import static java.lang.constant.ConstantDescs.INIT_NAME;
+import static java.lang.constant.ConstantDescs.MTD_void;
+
+/**
+ * Weaves a {@link GeneratedMethodEvent} around the public instance methods of a generated class.
+ *
+ * <p>Each woven method begins an event on entry, stored in a new local, and completes it before every return and in a
+ * catch-all handler that rethrows the exception. Constructors, static, bridge and synthetic methods are left as they
+ * are, as are methods without code.
+ *
+ * <p>A public method dispatched by {@link ConsumerDispatch} only hands its body to another thread, so the private
+ * {@code <name>$body} method is woven in its place and its events carry the name of the public method.
+ */
+@JBossLog
+@RequiredArgsConstructor
+public final class ClassFileEventWeaver {
+    private static final ClassDesc CD_GeneratedMethodEvent = classDesc(GeneratedMethodEvent.class);
+    private static final MethodTypeDesc MTD_complete = MethodTypeDesc.of(CD_void, CD_GeneratedMethodEvent, CD_Class, CD_String);
+
+    private final ClassFile context;
+
+    public byte[] weave(final byte[] bytes) {
+        final var model = context.parse(bytes);
+        final var thisClass = model.thisClass().asSymbol();
+        final var bodies = model.methods().stream()
+                                .filter(ClassFileEventWeaver::body)
+                                .map(method -> method.methodName().stringValue())
+                                .collect(Collectors.toSet());
+        final var woven = new int[1];
+
+        final var result = context.transformClass(model, (builder, element) -> {
+            if (element instanceof MethodModel method && woven(method, bodies)) {
+                final var name = method.methodName().stringValue();
+                final var timed = body(method) ? name.substring(0, name.length() - BODY_SUFFIX.length()) : name;
+                builder.transformMethod(method, MethodTransform.transformingCode(new Timing(thisClass, timed)));
+                woven[0]++;
+            } else {
+                builder.with(element);
+            }
+        });
+        log.debugf("Wove JFR events into %d methods of %s", woven[0], thisClass.displayName());
+        return result;
+    }
+
+    private static boolean woven(final MethodModel method, final Set<String> bodies) {
+        if (body(method)) return true;
+
+        final var flags = method.flags().flagsMask();
+        return (flags & ACC_PUBLIC) != 0
+               && (flags & (ACC_STATIC | ACC_ABSTRACT | ACC_BRIDGE | ACC_SYNTHETIC)) == 0
+               && !method.methodName().equalsString(INIT_NAME)
+               && !bodies.contains(method.methodName().stringValue() + BODY_SUFFIX)
+               && method.code().isPresent();
+    }
+
+    private static boolean body(final MethodModel method) {
+        final var flags = method.flags().flagsMask();
+        return (flags & (ACC_PRIVATE | ACC_SYNTHETIC)) == (ACC_PRIVATE | ACC_SYNTHETIC)
+               && (flags & ACC_STATIC) == 0
+               && method.methodName().stringValue().endsWith(BODY_SUFFIX)
+               && method.code().isPresent();
+    }
+
+    /**
+     * Begins the event on entry of one method and completes it on every exit.
+     */
+    @RequiredArgsConstructor
+    private static final class Timing implements CodeTransform {
+        private final ClassDesc owner;
+        private final String method;
+
+        private int event;
+        private Label start;
+
+        @Override
+        public void atStart(final CodeBuilder builder) {
+            event = builder.allocateLocal(TypeKind.REFERENCE);
+            start = builder.newLabel();
+            builder.new_(CD_GeneratedMethodEvent)
+                   .dup()
+                   .invokespecial(CD_GeneratedMethodEvent, INIT_NAME, MTD_void)
+                   .dup()
+                   .astore(event)
+                   .invokevirtual(CD_GeneratedMethodEvent, "begin", MTD_void)
+                   .labelBinding(start);
+        }
+
+        @Override
+        public void accept(final CodeBuilder builder, final CodeElement element) {
+            if (element instanceof ReturnInstruction) complete(builder);
+            builder.with(element);
+        }
+
+        @Override
+        public void atEnd(final CodeBuilder builder) {
+            final var end = builder.newBoundLabel();
+            final var handler = builder.newBoundLabel();
+            complete(builder);
+            builder.athrow()
+                   .exceptionCatchAll(start, end, handler);
+        }
+
+        private void complete(final CodeBuilder builder) {
+            builder.aload(event)
+                   .ldc(owner)
+                   .ldc(method)
+                   .invokestatic(CD_GeneratedMethodEvent, "complete", MTD_complete);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package de.natalie.classfile.deployment.generator;
+
+import lombok.Getter;
+
+import java.lang.constant.ClassDesc;
+
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.className;
+import static java.lang.String.format;
+
+/**
+ * Thrown if the bytecode of a {@code GeneratedClassFileBeanBuildItem} could not be generated.
+ * The exception carries the {@link ClassDesc} of the offending class, so failures of a single
+ * {@code classBuilder} callback can be traced back to the extension which declared it.
+ */
+@Getter
+public final class ClassFileGenerationException extends RuntimeException {
+    /**
+     * The class descriptor of the class which failed to generate.
+     */
+    private final transient ClassDesc classDesc;
+
+    public ClassFileGenerationException(final ClassDesc classDesc, final Throwable cause) {
+        super(format("Failed to generate class %s: %s", className(classDesc), cause.getMessage()), cause);
+        this.classDesc = classDesc;
+    }
+}
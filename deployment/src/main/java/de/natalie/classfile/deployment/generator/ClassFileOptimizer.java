@@ -0,0 +1,416 @@
+package de.natalie.classfile.deployment.generator;
+
+import de.natalie.classfile.deployment.utils.MetricsUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.jbosslog.JBossLog;
+
+import java.lang.classfile.ClassBuilder;
+import java.lang.classfile.ClassElement;
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.ClassModel;
+import java.lang.classfile.ClassTransform;
+import java.lang.classfile.CodeBuilder;
+import java.lang.classfile.CodeElement;
+import java.lang.classfile.CodeModel;
+import java.lang.classfile.CodeTransform;
+import java.lang.classfile.Instruction;
+import java.lang.classfile.MethodModel;
+import java.lang.classfile.MethodTransform;
+import java.lang.classfile.Opcode;
+import java.lang.classfile.TypeKind;
+import java.lang.classfile.constantpool.ConstantPoolBuilder;
+import java.lang.classfile.constantpool.ConstantValueEntry;
+import java.lang.classfile.instruction.ArrayLoadInstruction;
+import java.lang.classfile.instruction.ConstantInstruction;
+import java.lang.classfile.instruction.ConstantInstruction.ArgumentConstantInstruction;
+import java.lang.classfile.instruction.ConstantInstruction.IntrinsicConstantInstruction;
+import java.lang.classfile.instruction.ConstantInstruction.LoadConstantInstruction;
+import java.lang.classfile.instruction.FieldInstruction;
+import java.lang.classfile.instruction.IncrementInstruction;
+import java.lang.classfile.instruction.InvokeDynamicInstruction;
+import java.lang.classfile.instruction.InvokeInstruction;
+import java.lang.classfile.instruction.LoadInstruction;
+import java.lang.classfile.instruction.LocalVariable;
+import java.lang.classfile.instruction.LocalVariableType;
+import java.lang.classfile.instruction.NewReferenceArrayInstruction;
+import java.lang.classfile.instruction.OperatorInstruction;
+import java.lang.classfile.instruction.StackInstruction;
+import java.lang.classfile.instruction.StoreInstruction;
+import java.lang.classfile.instruction.TypeCheckInstruction;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.util.ArrayList;
+import java.util.List;
+
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.className;
+import static de.natalie.classfile.deployment.utils.MetricsUtils.FREQ_INLINE_SIZE;
+import static de.natalie.classfile.deployment.utils.MetricsUtils.MAX_INLINE_SIZE;
+import static de.natalie.classfile.deployment.utils.MetricsUtils.codeLength;
+import static de.natalie.classfile.deployment.utils.MetricsUtils.methodName;
+import static java.lang.classfile.ClassFile.ACC_FINAL;
+import static java.lang.classfile.ClassFile.ACC_INTERFACE;
+import static java.lang.classfile.ClassFile.ACC_PRIVATE;
+import static java.lang.classfile.ClassFile.ACC_STATIC;
+import static java.lang.classfile.ClassFile.ACC_SYNTHETIC;
+import static java.lang.constant.ConstantDescs.CLASS_INIT_NAME;
+import static java.lang.constant.ConstantDescs.MTD_void;
+import static java.util.Objects.isNull;
+
+/**
+ * A peephole optimizer for the method bodies of generated classes, enabled via
+ * {@code quarkus.class-file-api.generation.optimize}.
+ *
+ * <p>Hand-written {@code CodeBuilder} sequences tend to shuffle values through locals and the operand stack, and every
+ * wasted byte counts against HotSpot's inlining thresholds. Each method body is rewritten until none of these patterns
+ * is left:
+ * <ul>
+ *     <li>{@code xstore n; xload n} is dropped if local {@code n} is read nowhere else.</li>
+ *     <li>{@code xstore n; xload n; ...; xload n; swap}, where {@code ...} turns the loaded value into one result, becomes
+ *     {@code dup; ...} if local {@code n} is read nowhere else.</li>
+ *     <li>{@code swap; swap}, {@code dup; pop} and pushes of a local or constant which are popped right away are dropped,
+ *     and a {@code swap} of two such pushes reorders them instead. Only {@code int}, {@code long}, {@code float},
+ *     {@code double} and {@code String} constants qualify, since loading any other constant may have side effects.</li>
+ *     <li>{@code int} and {@code long} arithmetic on two constants is folded, except divisions.</li>
+ *     <li>{@code iconst_0; anewarray T} reads a {@code private static final} empty array, initialized once in
+ *     {@code <clinit>}, instead of allocating one per call.</li>
+ * </ul>
+ *
+ * <p>Patterns never span a label, line number or other pseudo instruction, so branch targets and exception ranges
+ * stay intact. Afterwards every method still above {@code MaxInlineSize} or {@code FreqInlineSize} is reported.
+ */
+@JBossLog
+@RequiredArgsConstructor
+public final class ClassFileOptimizer {
+    private static final String EMPTY_ARRAY_FIELD = "EMPTY_ARRAY$";
+    private static final Opcode[] INT_CONSTANTS = {Opcode.ICONST_M1, Opcode.ICONST_0, Opcode.ICONST_1, Opcode.ICONST_2,
+                                                   Opcode.ICONST_3, Opcode.ICONST_4, Opcode.ICONST_5};
+
+    private final ClassFile context;
+
+    public byte[] optimize(final byte[] bytes) {
+        final var model = context.parse(bytes);
+        final var thisClass = model.thisClass().asSymbol();
+        final var emptyArrays = (model.flags().flagsMask() & ACC_INTERFACE) != 0 ? List.<ClassDesc>of() : emptyArrays(model);
+        final var hasInitializer = model.methods().stream().anyMatch(method -> method.methodName().equalsString(CLASS_INIT_NAME));
+
+        final var optimized = context.transformClass(model, new ClassTransform() {
+            @Override
+            public void accept(final ClassBuilder builder, final ClassElement element) {
+                if (element instanceof MethodModel method && method.code().isPresent()) {
+                    final var initializer = method.methodName().equalsString(CLASS_INIT_NAME);
+                    builder.transformMethod(method, MethodTransform.transformingCode(new Peephole(thisClass, emptyArrays, initializer)));
+                } else {
+                    builder.with(element);
+                }
+            }
+
+            @Override
+            public void atEnd(final ClassBuilder builder) {
+                for (var index = 0; index < emptyArrays.size(); index++) {
+                    builder.withField(EMPTY_ARRAY_FIELD + index, emptyArrays.get(index).arrayType(), ACC_PRIVATE | ACC_STATIC | ACC_FINAL | ACC_SYNTHETIC);
+                }
+                if (!emptyArrays.isEmpty() && !hasInitializer) {
+                    builder.withMethodBody(CLASS_INIT_NAME, MTD_void, ACC_STATIC, code -> {
+                        initializeEmptyArrays(code, thisClass, emptyArrays);
+                        code.return_();
+                    });
+                }
+            }
+        });
+        report(model, context.parse(optimized));
+        return optimized;
+    }
+
+    private static void report(final ClassModel original, final ClassModel optimized) {
+        final var name = className(optimized.thisClass().asSymbol());
+        final var before = original.methods().stream().mapToInt(MetricsUtils::codeLength).sum();
+        final var after = optimized.methods().stream().mapToInt(MetricsUtils::codeLength).sum();
+        log.debugf("Optimized %s from %d to %d bytes of code", name, before, after);
+
+        for (final var method : optimized.methods()) {
+            final var codeLength = codeLength(method);
+            if (codeLength > FREQ_INLINE_SIZE) {
+                log.infof("Generated method %s.%s has %d bytes of code after optimization and is never inlined (FreqInlineSize is %d)",
+                          name, methodName(method), codeLength, FREQ_INLINE_SIZE);
+            } else if (codeLength > MAX_INLINE_SIZE) {
+                log.debugf("Generated method %s.%s has %d bytes of code after optimization and is only inlined when hot (MaxInlineSize is %d)",
+                           name, methodName(method), codeLength, MAX_INLINE_SIZE);
+            }
+        }
+    }
+
+    /**
+     * Collects the component types of all {@code iconst_0; anewarray T} sequences of the class, in order of appearance.
+     */
+    private static List<ClassDesc> emptyArrays(final ClassModel model) {
+        final var componentTypes = new ArrayList<ClassDesc>();
+        for (final var method : model.methods()) {
+            final var elements = method.code().map(CodeModel::elementList).orElse(List.of());
+            for (var index = 1; index < elements.size(); index++) {
+                if (elements.get(index) instanceof NewReferenceArrayInstruction newArray && isIntConstant(elements.get(index - 1), 0)
+                    && !componentTypes.contains(newArray.componentType().asSymbol())) {
+                    componentTypes.add(newArray.componentType().asSymbol());
+                }
+            }
+        }
+        return componentTypes;
+    }
+
+    private static void initializeEmptyArrays(final CodeBuilder code, final ClassDesc thisClass, final List<ClassDesc> emptyArrays) {
+        for (var index = 0; index < emptyArrays.size(); index++) {
+            code.iconst_0()
+                .anewarray(emptyArrays.get(index))
+                .putstatic(thisClass, EMPTY_ARRAY_FIELD + index, emptyArrays.get(index).arrayType());
+        }
+    }
+
+    /**
+     * Buffers a method body and emits its optimized form at the end, since the patterns look ahead.
+     */
+    @RequiredArgsConstructor
+    private static final class Peephole implements CodeTransform {
+        private final ClassDesc thisClass;
+        private final List<ClassDesc> emptyArrays;
+        private final boolean initializer;
+        private final List<CodeElement> elements = new ArrayList<>();
+
+        @Override
+        public void accept(final CodeBuilder builder, final CodeElement element) {
+            elements.add(element);
+        }
+
+        @Override
+        public void atEnd(final CodeBuilder builder) {
+            if (initializer) initializeEmptyArrays(builder, thisClass, emptyArrays);
+
+            var changed = true;
+            while (changed) {
+                changed = false;
+                for (var index = 0; index < elements.size(); index++) {
+                    changed |= rewrite(index, builder.constantPool());
+                }
+            }
+            elements.forEach(builder::with);
+        }
+
+        private boolean rewrite(final int index, final ConstantPoolBuilder pool) {
+            return dropDeadStore(index) || duplicateInsteadOfStore(index) || dropStackShuffle(index)
+                   || foldConstants(index, pool) || hoistEmptyArray(index, pool);
+        }
+
+        private boolean dropDeadStore(final int index) {
+            if (!(at(index) instanceof StoreInstruction store && at(index + 1) instanceof LoadInstruction load)) return false;
+            if (load.slot() != store.slot() || load.typeKind() != store.typeKind() || reads(store.slot()) != 1) return false;
+
+            remove(index, 2);
+            return true;
+        }
+
+        private boolean duplicateInsteadOfStore(final int index) {
+            if (!(at(index) instanceof StoreInstruction store && at(index + 1) instanceof LoadInstruction load)) return false;
+            if (load.slot() != store.slot() || load.typeKind() != store.typeKind() || store.typeKind().slotSize() != 1) return false;
+            if (reads(store.slot()) != 2) return false;
+
+            // the stack depth above the stored value, which the instructions in between may consume but not go below
+            var depth = 1;
+            for (var next = index + 2; next < elements.size(); next++) {
+                if (at(next) instanceof LoadInstruction reload && reload.slot() == store.slot()) {
+                    if (depth != 1 || next == index + 2 || !isOpcode(at(next + 1), Opcode.SWAP)) return false;
+                    remove(next, 2);
+                    remove(index + 1, 1);
+                    elements.set(index, StackInstruction.of(Opcode.DUP));
+                    return true;
+                }
+                final var effect = stackEffect(at(next));
+                if (isNull(effect) || depth < effect[0]) return false;
+                depth += effect[1] - effect[0];
+            }
+            return false;
+        }
+
+        private boolean dropStackShuffle(final int index) {
+            final var first = at(index);
+            final var second = at(index + 1);
+            if (isOpcode(first, Opcode.SWAP) && isOpcode(second, Opcode.SWAP)
+                || isOpcode(first, Opcode.DUP) && isOpcode(second, Opcode.POP)
+                || pushSize(first) == 1 && isOpcode(second, Opcode.POP)
+                || pushSize(first) == 2 && isOpcode(second, Opcode.POP2)) {
+                remove(index, 2);
+                return true;
+            }
+            if (pushSize(first) == 1 && pushSize(second) == 1 && isOpcode(at(index + 2), Opcode.SWAP)) {
+                remove(index + 2, 1);
+                elements.set(index, second);
+                elements.set(index + 1, first);
+                return true;
+            }
+            return false;
+        }
+
+        private boolean foldConstants(final int index, final ConstantPoolBuilder pool) {
+            if (at(index) instanceof ConstantInstruction constant && at(index + 1) instanceof OperatorInstruction negation) {
+                final var folded = switch (negation.opcode()) {
+                    case INEG -> constant.constantValue() instanceof Integer value ? intConstant(-value, pool) : null;
+                    case LNEG -> constant.constantValue() instanceof Long value ? longConstant(-value, pool) : null;
+                    default -> null;
+                };
+                if (isNull(folded)) return false;
+                remove(index + 1, 1);
+                elements.set(index, folded);
+                return true;
+            }
+            if (!(at(index) instanceof ConstantInstruction left && at(index + 1) instanceof ConstantInstruction right
+                  && at(index + 2) instanceof OperatorInstruction operator)) return false;
+
+            final var folded = switch (left.constantValue()) {
+                case Integer a when right.constantValue() instanceof Integer b -> foldInt(operator.opcode(), a, b, pool);
+                case Long a when right.constantValue() instanceof Long b -> foldLong(operator.opcode(), a, b, pool);
+                case Long a when right.constantValue() instanceof Integer b -> foldShift(operator.opcode(), a, b, pool);
+                default -> null;
+            };
+            if (isNull(folded)) return false;
+            remove(index + 1, 2);
+            elements.set(index, folded);
+            return true;
+        }
+
+        private boolean hoistEmptyArray(final int index, final ConstantPoolBuilder pool) {
+            if (!(isIntConstant(at(index), 0) && at(index + 1) instanceof NewReferenceArrayInstruction newArray)) return false;
+            final var field = emptyArrays.indexOf(newArray.componentType().asSymbol());
+            if (field < 0) return false;
+
+            remove(index + 1, 1);
+            elements.set(index, FieldInstruction.of(Opcode.GETSTATIC,
+                                                    pool.fieldRefEntry(thisClass, EMPTY_ARRAY_FIELD + field, emptyArrays.get(field).arrayType())));
+            return true;
+        }
+
+        /**
+         * Counts the instructions and debug entries reading local {@code slot}.
+         */
+        private int reads(final int slot) {
+            var reads = 0;
+            for (final var element : elements) {
+                switch (element) {
+                    case LoadInstruction load when load.slot() == slot -> reads++;
+                    case IncrementInstruction increment when increment.slot() == slot -> reads++;
+                    case LocalVariable variable when variable.slot() == slot -> reads++;
+                    case LocalVariableType variable when variable.slot() == slot -> reads++;
+                    case Instruction instruction when instruction.opcode() == Opcode.RET || instruction.opcode() == Opcode.RET_W -> reads++;
+                    default -> { }
+                }
+            }
+            return reads;
+        }
+
+        private CodeElement at(final int index) {
+            return index < elements.size() ? elements.get(index) : null;
+        }
+
+        private void remove(final int index, final int count) {
+            elements.subList(index, index + count).clear();
+        }
+    }
+
+    /**
+     * The number of slots pushed by a load of a local or a constant, which can be dropped or reordered freely, or 0.
+     * Loads of dynamic constants, classes, method handles and method types are excluded, since resolving them may
+     * run bootstrap methods, load classes or throw.
+     */
+    private static int pushSize(final CodeElement element) {
+        return switch (element) {
+            case LoadInstruction load -> load.typeKind().slotSize();
+            case IntrinsicConstantInstruction constant -> constant.typeKind().slotSize();
+            case ArgumentConstantInstruction constant -> constant.typeKind().slotSize();
+            case LoadConstantInstruction constant when constant.constantEntry() instanceof ConstantValueEntry -> constant.typeKind().slotSize();
+            case null, default -> 0;
+        };
+    }
+
+    /**
+     * The number of stack slots popped and pushed by the instruction, or {@code null} if it is not supported between
+     * a {@code dup} and the consumer of the duplicated value.
+     */
+    private static int[] stackEffect(final CodeElement element) {
+        return switch (element) {
+            case LoadInstruction load -> new int[]{0, load.typeKind().slotSize()};
+            case ConstantInstruction constant -> new int[]{0, constant.typeKind().slotSize()};
+            case TypeCheckInstruction _ -> new int[]{1, 1};
+            case ArrayLoadInstruction load -> new int[]{2, load.typeKind().slotSize()};
+            case FieldInstruction field -> {
+                final var size = TypeKind.from(field.typeSymbol()).slotSize();
+                yield switch (field.opcode()) {
+                    case GETFIELD -> new int[]{1, size};
+                    case GETSTATIC -> new int[]{0, size};
+                    case PUTFIELD -> new int[]{1 + size, 0};
+                    default -> new int[]{size, 0};
+                };
+            }
+            case InvokeInstruction invoke -> new int[]{slots(invoke.typeSymbol()) + (invoke.opcode() == Opcode.INVOKESTATIC ? 0 : 1),
+                                                       TypeKind.from(invoke.typeSymbol().returnType()).slotSize()};
+            case InvokeDynamicInstruction invoke -> new int[]{slots(invoke.typeSymbol()), TypeKind.from(invoke.typeSymbol().returnType()).slotSize()};
+            case null, default -> null;
+        };
+    }
+
+    private static int slots(final MethodTypeDesc type) {
+        return type.parameterList().stream().mapToInt(parameter -> TypeKind.from(parameter).slotSize()).sum();
+    }
+
+    private static boolean isOpcode(final CodeElement element, final Opcode opcode) {
+        return element instanceof Instruction instruction && instruction.opcode() == opcode;
+    }
+
+    private static boolean isIntConstant(final CodeElement element, final int value) {
+        return element instanceof ConstantInstruction constant && constant.constantValue() instanceof Integer integer && integer == value;
+    }
+
+    private static ConstantInstruction foldInt(final Opcode opcode, final int a, final int b, final ConstantPoolBuilder pool) {
+        return switch (opcode) {
+            case IADD -> intConstant(a + b, pool);
+            case ISUB -> intConstant(a - b, pool);
+            case IMUL -> intConstant(a * b, pool);
+            case IAND -> intConstant(a & b, pool);
+            case IOR -> intConstant(a | b, pool);
+            case IXOR -> intConstant(a ^ b, pool);
+            case ISHL -> intConstant(a << b, pool);
+            case ISHR -> intConstant(a >> b, pool);
+            case IUSHR -> intConstant(a >>> b, pool);
+            default -> null;
+        };
+    }
+
+    private static ConstantInstruction foldLong(final Opcode opcode, final long a, final long b, final ConstantPoolBuilder pool) {
+        return switch (opcode) {
+            case LADD -> longConstant(a + b, pool);
+            case LSUB -> longConstant(a - b, pool);
+            case LMUL -> longConstant(a * b, pool);
+            case LAND -> longConstant(a & b, pool);
+            case LOR -> longConstant(a | b, pool);
+            case LXOR -> longConstant(a ^ b, pool);
+            default -> null;
+        };
+    }
+
+    private static ConstantInstruction foldShift(final Opcode opcode, final long a, final int b, final ConstantPoolBuilder pool) {
+        return switch (opcode) {
+            case LSHL -> longConstant(a << b, pool);
+            case LSHR -> longConstant(a >> b, pool);
+            case LUSHR -> longConstant(a >>> b, pool);
+            default -> null;
+        };
+    }
+
+    private static ConstantInstruction intConstant(final int value, final ConstantPoolBuilder pool) {
+        if (value >= -1 && value <= 5) return ConstantInstruction.ofIntrinsic(INT_CONSTANTS[value + 1]);
+        if (value == (byte) value) return ConstantInstruction.ofArgument(Opcode.BIPUSH, value);
+        if (value == (short) value) return ConstantInstruction.ofArgument(Opcode.SIPUSH, value);
+        final var entry = pool.intEntry(value);
+        return ConstantInstruction.ofLoad(entry.index() <= 0xFF ? Opcode.LDC : Opcode.LDC_W, entry);
+    }
+
+    private static ConstantInstruction longConstant(final long value, final ConstantPoolBuilder pool) {
+        if (value == 0 || value == 1) return ConstantInstruction.ofIntrinsic(value == 0 ? Opcode.LCONST_0 : Opcode.LCONST_1);
+        return ConstantInstruction.ofLoad(Opcode.LDC2_W, pool.longEntry(value));
+    }
+}
@@ -0,0 +1,163 @@
+package de.natalie.classfile.deployment.generator;
+
+import de.natalie.classfile.deployment.builditem.TemplateVariant;
+
+import java.lang.classfile.Attributes;
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.ClassFile.StackMapsOption;
+import java.lang.classfile.ClassModel;
+import java.lang.classfile.ClassTransform;
+import java.lang.classfile.CodeElement;
+import java.lang.classfile.CodeModel;
+import java.lang.classfile.CodeTransform;
+import java.lang.classfile.MethodModel;
+import java.lang.classfile.MethodTransform;
+import java.lang.classfile.instruction.ConstantInstruction;
+import java.lang.classfile.instruction.FieldInstruction;
+import java.lang.classfile.instruction.InvokeDynamicInstruction;
+import java.lang.classfile.instruction.InvokeInstruction;
+import java.lang.classfile.instruction.NewObjectInstruction;
+import java.lang.classfile.instruction.TypeCheckInstruction;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.ConstantDesc;
+import java.lang.constant.DirectMethodHandleDesc;
+import java.lang.constant.DynamicCallSiteDesc;
+import java.lang.constant.MethodHandleDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static de.natalie.classfile.deployment.utils.MetricsUtils.methodName;
+
+/**
+ * A parsed template class from which variants are stamped out.
+ *
+ * <p>The constants and classes referenced by each method are collected once per template. Stamping a variant then only
+ * rewrites the bodies of methods referencing one of its replacements or carrying stack map frames, which may name the
+ * template class. Their frames are generated again. All other methods are copied as they are. The variant keeps sharing
+ * the constant pool of the template, so copied methods are not re-encoded.
+ */
+public final class ClassFileTemplate {
+    private final ClassFile context;
+    private final ClassModel model;
+    private final Map<String, Set<Object>> references = new HashMap<>();
+    private final Set<String> framed = new HashSet<>();
+
+    public ClassFileTemplate(final ClassFile context, final byte[] bytes) {
+        this.context = context.withOptions(StackMapsOption.GENERATE_STACK_MAPS);
+        this.model = context.parse(bytes);
+        for (final var method : model.methods()) {
+            final var methodReferences = new HashSet<>();
+            method.code().ifPresent(code -> collectReferences(code, methodReferences));
+            references.put(methodName(method), methodReferences);
+            if (method.findAttribute(Attributes.code()).flatMap(code -> code.findAttribute(Attributes.stackMapTable())).isPresent()) {
+                framed.add(methodName(method));
+            }
+        }
+    }
+
+    public byte[] stamp(final TemplateVariant variant) {
+        final var classes = new HashMap<>(variant.classes());
+        classes.put(model.thisClass().asSymbol(), variant.classDesc());
+        final var strings = variant.strings();
+
+        final var remap = remap(strings, classes);
+        final ClassTransform transform = (builder, element) -> {
+            if (element instanceof MethodModel method && rewrites(method, strings, classes)) {
+                builder.transformMethod(method, MethodTransform.transformingCode(remap));
+            } else {
+                builder.with(element);
+            }
+        };
+        return context.transformClass(model, variant.classDesc(), transform);
+    }
+
+    private boolean rewrites(final MethodModel method, final Map<String, String> strings, final Map<ClassDesc, ClassDesc> classes) {
+        final var methodReferences = references.get(methodName(method));
+        return framed.contains(methodName(method))
+               || strings.keySet().stream().anyMatch(methodReferences::contains)
+               || classes.keySet().stream().anyMatch(methodReferences::contains);
+    }
+
+    private static void collectReferences(final CodeModel code, final Set<Object> references) {
+        for (final CodeElement element : code) {
+            switch (element) {
+                case ConstantInstruction constant -> references.add(constant.constantValue());
+                case FieldInstruction field -> references.add(field.owner().asSymbol());
+                case InvokeInstruction invoke -> references.add(invoke.owner().asSymbol());
+                case TypeCheckInstruction typeCheck -> references.add(typeCheck.type().asSymbol());
+                case NewObjectInstruction newObject -> references.add(newObject.className().asSymbol());
+                case InvokeDynamicInstruction invoke -> references(invoke).forEach(references::add);
+                default -> { }
+            }
+        }
+    }
+
+    static CodeTransform remap(final Map<String, String> strings, final Map<ClassDesc, ClassDesc> classes) {
+        return (builder, element) -> {
+            switch (element) {
+                case ConstantInstruction constant when constant.constantValue() instanceof String value && strings.containsKey(value) ->
+                        builder.ldc(strings.get(value));
+                case ConstantInstruction constant when constant.constantValue() instanceof ClassDesc value && classes.containsKey(value) ->
+                        builder.ldc(classes.get(value));
+                case FieldInstruction field when classes.containsKey(field.owner().asSymbol()) ->
+                        builder.fieldAccess(field.opcode(), classes.get(field.owner().asSymbol()), field.name().stringValue(), field.typeSymbol());
+                case InvokeInstruction invoke when classes.containsKey(invoke.owner().asSymbol()) ->
+                        builder.invoke(invoke.opcode(), classes.get(invoke.owner().asSymbol()), invoke.name().stringValue(), invoke.typeSymbol(), invoke.isInterface());
+                case TypeCheckInstruction typeCheck when classes.containsKey(typeCheck.type().asSymbol()) ->
+                        builder.with(TypeCheckInstruction.of(typeCheck.opcode(), classes.get(typeCheck.type().asSymbol())));
+                case NewObjectInstruction newObject when classes.containsKey(newObject.className().asSymbol()) ->
+                        builder.new_(classes.get(newObject.className().asSymbol()));
+                case InvokeDynamicInstruction invoke when references(invoke).anyMatch(classes::containsKey) ->
+                        builder.invokedynamic(DynamicCallSiteDesc.of(invoke.bootstrapMethod(),
+                                                                     invoke.name().stringValue(),
+                                                                     remap(invoke.typeSymbol(), classes),
+                                                                     invoke.bootstrapArgs().stream()
+                                                                           .map(argument -> remap(argument, classes))
+                                                                           .toArray(ConstantDesc[]::new)));
+                default -> builder.with(element);
+            }
+        };
+    }
+
+    /**
+     * The classes referenced by the type and the bootstrap arguments of a call site, e.g. the owner of a lambda body.
+     */
+    private static Stream<ClassDesc> references(final InvokeDynamicInstruction invoke) {
+        return Stream.concat(references(invoke.typeSymbol()), invoke.bootstrapArgs().stream().flatMap(ClassFileTemplate::references));
+    }
+
+    private static Stream<ClassDesc> references(final ConstantDesc constant) {
+        return switch (constant) {
+            case ClassDesc desc -> Stream.of(desc);
+            case MethodTypeDesc type -> Stream.concat(Stream.of(type.returnType()), type.parameterList().stream());
+            case DirectMethodHandleDesc handle -> Stream.concat(Stream.of(handle.owner()), references(handle.invocationType()));
+            default -> Stream.empty();
+        };
+    }
+
+    private static ConstantDesc remap(final ConstantDesc constant, final Map<ClassDesc, ClassDesc> classes) {
+        return switch (constant) {
+            case ClassDesc desc -> classes.getOrDefault(desc, desc);
+            case MethodTypeDesc type -> remap(type, classes);
+            case DirectMethodHandleDesc handle -> {
+                final var owner = classes.getOrDefault(handle.owner(), handle.owner());
+                yield switch (handle.kind()) {
+                    case GETTER, SETTER, STATIC_GETTER, STATIC_SETTER -> MethodHandleDesc.ofField(
+                            handle.kind(), owner, handle.methodName(), (ClassDesc) remap(ClassDesc.ofDescriptor(handle.lookupDescriptor()), classes));
+                    default -> MethodHandleDesc.ofMethod(
+                            handle.kind(), owner, handle.methodName(), remap(MethodTypeDesc.ofDescriptor(handle.lookupDescriptor()), classes));
+                };
+            }
+            default -> constant;
+        };
+    }
+
+    private static MethodTypeDesc remap(final MethodTypeDesc type, final Map<ClassDesc, ClassDesc> classes) {
+        return MethodTypeDesc.of(classes.getOrDefault(type.returnType(), type.returnType()),
+                                 type.parameterList().stream().map(parameter -> classes.getOrDefault(parameter, parameter)).toArray(ClassDesc[]::new));
+    }
+}
@@ -0,0 +1,208 @@
+package de.natalie.classfile.deployment.generator;
+
+import io.quarkus.runtime.ExecutorRecorder;
+
+import java.lang.classfile.ClassBuilder;
+import java.lang.classfile.CodeBuilder;
+import java.lang.classfile.TypeKind;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.ConstantDescs;
+import java.lang.constant.DirectMethodHandleDesc;
+import java.lang.constant.DynamicCallSiteDesc;
+import java.lang.constant.MethodHandleDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.invoke.LambdaMetafactory;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+import static de.natalie.classfile.deployment.utils.BootstrapUtils.permitsConstant;
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.classDesc;
+import static java.lang.classfile.ClassFile.ACC_PRIVATE;
+import static java.lang.classfile.ClassFile.ACC_PUBLIC;
+import static java.lang.classfile.ClassFile.ACC_SYNTHETIC;
+import static java.lang.constant.ConstantDescs.CD_CallSite;
+import static java.lang.constant.ConstantDescs.CD_MethodHandle;
+import static java.lang.constant.ConstantDescs.CD_MethodType;
+import static java.lang.constant.ConstantDescs.CD_String;
+import static java.lang.constant.ConstantDescs.CD_boolean;
+import static java.lang.constant.ConstantDescs.CD_int;
+import static java.lang.constant.ConstantDescs.CD_void;
+import static java.lang.constant.ConstantDescs.INIT_NAME;
+import static java.lang.constant.ConstantDescs.MTD_void;
+
+/**
+ * The thread on which a generated event bus consumer runs its handler method, and how many calls may run at once.
+ *
+ * <p>In {@link Mode#EVENT_LOOP} mode the handler is emitted as it is and runs on the event loop which delivered the
+ * message. In the other modes {@link #withMethod} weaves the dispatch into the generated class itself, without a
+ * runtime wrapper:
+ * <ul>
+ *     <li>The body is emitted as a private {@code <name>$body} method.</li>
+ *     <li>A private {@code <name>$dispatched} method calls the body and then releases its permit, also on failure.</li>
+ *     <li>The public method takes a permit of a {@link Semaphore} shared by all instances of the class, and hands
+ *     {@code <name>$dispatched} to the Quarkus worker pool or a new virtual thread as a lambda. If that fails, e.g.
+ *     because the worker pool rejects the task, the permit is released and the exception is rethrown.</li>
+ * </ul>
+ *
+ * <p>If all {@code maxConcurrency} permits are taken, the call is rejected on the event loop right away instead of
+ * queueing up: a Vert.x {@code Message} argument is failed with {@link #BUSY}, so requesters see the backpressure as a
+ * {@code ReplyException}, otherwise a {@link RejectedExecutionException} is thrown. Messages handled off the event loop
+ * may be handled out of order.
+ *
+ * @param mode           the thread the handler body runs on
+ * @param maxConcurrency the maximum number of concurrent handler calls in {@link Mode#WORKER} and
+ *                       {@link Mode#VIRTUAL_THREAD} mode, per generated class
+ */
+public record ConsumerDispatch(Mode mode, int maxConcurrency) {
+    /**
+     * Runs the handler on the event loop, as a plain method.
+     */
+    public static final ConsumerDispatch EVENT_LOOP = new ConsumerDispatch(Mode.EVENT_LOOP, 0);
+
+    /**
+     * The failure code of messages rejected because all permits are taken.
+     */
+    public static final int BUSY = 503;
+
+    static final String BODY_SUFFIX = "$body";
+    private static final String DISPATCHED_SUFFIX = "$dispatched";
+    private static final ClassDesc CD_Semaphore = classDesc(Semaphore.class);
+    private static final ClassDesc CD_Executor = classDesc(Executor.class);
+    private static final ClassDesc CD_Runnable = classDesc(Runnable.class);
+    private static final ClassDesc CD_Thread = classDesc(Thread.class);
+    private static final ClassDesc MUTINY_MESSAGE = ClassDesc.of("io.vertx.mutiny.core.eventbus.Message");
+    private static final ClassDesc CORE_MESSAGE = ClassDesc.of("io.vertx.core.eventbus.Message");
+    private static final MethodTypeDesc MTD_fail = MethodTypeDesc.of(CD_void, CD_int, CD_String);
+    private static final DirectMethodHandleDesc BSM_LAMBDA = ConstantDescs.ofCallsiteBootstrap(classDesc(LambdaMetafactory.class), "metafactory",
+                                                                                             CD_CallSite, CD_MethodType, CD_MethodHandle, CD_MethodType);
+
+    public enum Mode {
+        /**
+         * Run the handler on the event loop which delivered the message.
+         */
+        EVENT_LOOP,
+
+        /**
+         * Run the handler on the Quarkus worker pool.
+         */
+        WORKER,
+
+        /**
+         * Run the handler on a new virtual thread per call.
+         */
+        VIRTUAL_THREAD
+    }
+
+    public ConsumerDispatch {
+        if (mode != Mode.EVENT_LOOP && maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive in %s mode: %d".formatted(mode, maxConcurrency));
+        }
+    }
+
+    /**
+     * Emits the public handler method {@code name} of {@code owner}, whose body is dispatched according to this mode.
+     *
+     * @param classBuilder the builder of the generated consumer
+     * @param owner        the generated consumer class
+     * @param name         the name of the handler method, e.g. {@code accept}
+     * @param type         the type of the handler method, which must return {@code void}
+     * @param body         emits the body of the handler method
+     */
+    public ClassBuilder withMethod(final ClassBuilder classBuilder, final ClassDesc owner, final String name, final MethodTypeDesc type,
+                                   final Consumer<CodeBuilder> body) {
+        if (mode == Mode.EVENT_LOOP) return classBuilder.withMethodBody(name, type, ACC_PUBLIC, body);
+        if (!type.returnType().equals(CD_void)) {
+            throw new IllegalArgumentException("Dispatched method %s%s must return void".formatted(name, type.descriptorString()));
+        }
+
+        return classBuilder.withMethodBody(name + BODY_SUFFIX, type, ACC_PRIVATE | ACC_SYNTHETIC, body)
+                           .withMethodBody(name + DISPATCHED_SUFFIX, type, ACC_PRIVATE | ACC_SYNTHETIC,
+                                           code -> generateDispatched(code, owner, name + BODY_SUFFIX, type))
+                           .withMethodBody(name, type, ACC_PUBLIC, code -> generateDispatch(code, owner, name, type));
+    }
+
+    private void generateDispatch(final CodeBuilder code, final ClassDesc owner, final String name, final MethodTypeDesc type) {
+        final var dispatch = code.newLabel();
+        code.ldc(permitsConstant(maxConcurrency))
+            .invokevirtual(CD_Semaphore, "tryAcquire", MethodTypeDesc.of(CD_boolean))
+            .ifne(dispatch);
+        generateRejection(code, owner, type);
+
+        // a failing submit, e.g. a rejecting worker pool, must not leak the permit taken above
+        final var end = code.newLabel();
+        final var failure = code.newLabel();
+        code.labelBinding(dispatch);
+        if (mode == Mode.WORKER) code.invokestatic(classDesc(ExecutorRecorder.class), "getCurrent", MethodTypeDesc.of(CD_Executor));
+        code.aload(0);
+        loadParameters(code, type);
+        final var target = MethodHandleDesc.ofMethod(DirectMethodHandleDesc.Kind.SPECIAL, owner, name + DISPATCHED_SUFFIX, type);
+        final var lambdaType = MethodTypeDesc.of(CD_Runnable, type.insertParameterTypes(0, owner).parameterArray());
+        code.invokedynamic(DynamicCallSiteDesc.of(BSM_LAMBDA, "run", lambdaType, MTD_void, target, MTD_void));
+        if (mode == Mode.WORKER) {
+            code.invokeinterface(CD_Executor, "execute", MethodTypeDesc.of(CD_void, CD_Runnable));
+        } else {
+            code.invokestatic(CD_Thread, "startVirtualThread", MethodTypeDesc.of(CD_Thread, CD_Runnable)).pop();
+        }
+        code.labelBinding(end)
+            .return_()
+            .labelBinding(failure)
+            .ldc(permitsConstant(maxConcurrency))
+            .invokevirtual(CD_Semaphore, "release", MTD_void)
+            .athrow()
+            .exceptionCatchAll(dispatch, end, failure);
+    }
+
+    private void generateRejection(final CodeBuilder code, final ClassDesc owner, final MethodTypeDesc type) {
+        final var reason = "%s is busy with %d messages".formatted(owner.displayName(), maxConcurrency);
+        if (type.parameterCount() > 0 && !type.parameterType(0).isPrimitive()) {
+            for (final var message : new ClassDesc[]{MUTINY_MESSAGE, CORE_MESSAGE}) {
+                final var next = code.newLabel();
+                code.aload(code.parameterSlot(0))
+                    .instanceOf(message)
+                    .ifeq(next)
+                    .aload(code.parameterSlot(0))
+                    .checkcast(message)
+                    .sipush(BUSY)
+                    .ldc(reason);
+                if (message.equals(CORE_MESSAGE)) code.invokeinterface(message, "fail", MTD_fail);
+                else code.invokevirtual(message, "fail", MTD_fail);
+                code.return_()
+                    .labelBinding(next);
+            }
+        }
+
+        final var exception = classDesc(RejectedExecutionException.class);
+        code.new_(exception)
+            .dup()
+            .ldc(reason)
+            .invokespecial(exception, INIT_NAME, MethodTypeDesc.of(CD_void, CD_String))
+            .athrow();
+    }
+
+    private void generateDispatched(final CodeBuilder code, final ClassDesc owner, final String bodyName, final MethodTypeDesc type) {
+        final var start = code.newLabel();
+        final var end = code.newLabel();
+        final var failure = code.newLabel();
+
+        code.labelBinding(start).aload(0);
+        loadParameters(code, type);
+        code.invokespecial(owner, bodyName, type)
+            .labelBinding(end)
+            .ldc(permitsConstant(maxConcurrency))
+            .invokevirtual(CD_Semaphore, "release", MTD_void)
+            .return_()
+            .labelBinding(failure)
+            .ldc(permitsConstant(maxConcurrency))
+            .invokevirtual(CD_Semaphore, "release", MTD_void)
+            .athrow()
+            .exceptionCatchAll(start, end, failure);
+    }
+
+    private static void loadParameters(final CodeBuilder code, final MethodTypeDesc type) {
+        for (var index = 0; index < type.parameterCount(); index++) {
+            code.loadLocal(TypeKind.from(type.parameterType(index)), code.parameterSlot(index));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package de.natalie.classfile.deployment.generator;
+
+import io.quarkus.arc.deployment.GeneratedBeanBuildItem;
+
+import java.lang.constant.ClassDesc;
+
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.className;
+
+/**
+ * The outcome of generating a single {@code GeneratedClassFileBeanBuildItem}.
+ *
+ * @param classDesc       the descriptor of the generated class
+ * @param bytes           the final class file bytes
+ * @param generationNanos the time spent in {@code ClassFile.build}, including the annotation pass
+ * @param annotationNanos the time spent in the annotation pass, which emits the {@code @Inject} constructor with its
+ *                        qualifiers, the scope and {@code @Unremovable}
+ * @param cached          whether the bytes were taken from the on-disk cache instead of being generated
+ */
+public record GeneratedClassFile(ClassDesc classDesc, byte[] bytes, long generationNanos, long annotationNanos, boolean cached) {
+    public GeneratedBeanBuildItem toBuildItem() {
+        return new GeneratedBeanBuildItem(className(classDesc), bytes);
+    }
+}
@@ -0,0 +1,91 @@
+package de.natalie.classfile.deployment.utils;
+
+import de.natalie.classfile.runtime.Bootstraps;
+import lombok.experimental.UtilityClass;
+
+import java.lang.classfile.CodeBuilder;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.ConstantDescs;
+import java.lang.constant.DirectMethodHandleDesc;
+import java.lang.constant.DynamicCallSiteDesc;
+import java.lang.constant.DynamicConstantDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.util.concurrent.Semaphore;
+
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.classDesc;
+import static java.lang.constant.ConstantDescs.CD_CallSite;
+import static java.lang.constant.ConstantDescs.CD_Object;
+import static java.lang.constant.ConstantDescs.CD_String;
+import static java.lang.constant.ConstantDescs.CD_int;
+import static java.lang.constant.ConstantDescs.DEFAULT_NAME;
+
+/**
+ * Emits dynamic constants and {@code invokedynamic} call sites which resolve CDI beans and configuration values through
+ * {@link Bootstraps} on first use, and behave like constants afterwards.
+ *
+ * <p>Compared to an {@code Arc.container().instance(...)} lookup in a method body, the value is resolved once per
+ * generated class and is trusted by the JIT, so hot paths can be constant folded.
+ *
+ * @see Bootstraps
+ */
+@UtilityClass
+public final class BootstrapUtils {
+    private static final ClassDesc BOOTSTRAPS = classDesc(Bootstraps.class);
+
+    private static final DirectMethodHandleDesc BSM_BEAN = ConstantDescs.ofConstantBootstrap(BOOTSTRAPS, "bean", CD_Object);
+    private static final DirectMethodHandleDesc BSM_CONFIG = ConstantDescs.ofConstantBootstrap(BOOTSTRAPS, "config", CD_Object, CD_String);
+    private static final DirectMethodHandleDesc BSM_PERMITS = ConstantDescs.ofConstantBootstrap(BOOTSTRAPS, "permits", classDesc(Semaphore.class), CD_int);
+    private static final DirectMethodHandleDesc BSM_BEAN_CALL_SITE = ConstantDescs.ofCallsiteBootstrap(BOOTSTRAPS, "beanCallSite", CD_CallSite);
+    private static final DirectMethodHandleDesc BSM_CONFIG_CALL_SITE = ConstantDescs.ofCallsiteBootstrap(BOOTSTRAPS, "configCallSite", CD_CallSite, CD_String);
+
+    /**
+     * A dynamic constant resolving to the bean of the given type.
+     */
+    public static DynamicConstantDesc<Object> beanConstant(ClassDesc type) {
+        return DynamicConstantDesc.ofNamed(BSM_BEAN, DEFAULT_NAME, type);
+    }
+
+    /**
+     * A dynamic constant resolving to the value of the given configuration property. Primitive types are supported.
+     */
+    public static DynamicConstantDesc<Object> configConstant(String property, ClassDesc type) {
+        return DynamicConstantDesc.ofNamed(BSM_CONFIG, DEFAULT_NAME, type, property);
+    }
+
+    /**
+     * A dynamic constant resolving to a {@link Semaphore} with the given number of permits, created once per
+     * generated class.
+     */
+    public static DynamicConstantDesc<Object> permitsConstant(int permits) {
+        return DynamicConstantDesc.ofNamed(BSM_PERMITS, DEFAULT_NAME, classDesc(Semaphore.class), permits);
+    }
+
+    /**
+     * Pushes the bean of the given type onto the operand stack with an {@code ldc} of a dynamic constant.
+     */
+    public static CodeBuilder loadBean(CodeBuilder builder, ClassDesc type) {
+        return builder.ldc(beanConstant(type));
+    }
+
+    /**
+     * Pushes the value of the given configuration property onto the operand stack with an {@code ldc} of a dynamic
+     * constant.
+     */
+    public static CodeBuilder loadConfig(CodeBuilder builder, String property, ClassDesc type) {
+        return builder.ldc(configConstant(property, type));
+    }
+
+    /**
+     * Pushes the bean of the given type onto the operand stack with an {@code invokedynamic} call site.
+     */
+    public static CodeBuilder invokeBean(CodeBuilder builder, ClassDesc type) {
+        return builder.invokedynamic(DynamicCallSiteDesc.of(BSM_BEAN_CALL_SITE, DEFAULT_NAME, MethodTypeDesc.of(type)));
+    }
+
+    /**
+     * Pushes the value of the given configuration property onto the operand stack with an {@code invokedynamic} call site.
+     */
+    public static CodeBuilder invokeConfig(CodeBuilder builder, String property, ClassDesc type) {
+        return builder.invokedynamic(DynamicCallSiteDesc.of(BSM_CONFIG_CALL_SITE, DEFAULT_NAME, MethodTypeDesc.of(type), property));
+    }
+}
@@ -1,22 +1,104 @@
 package de.natalie.classfile.deployment.utils;
 
 import lombok.experimental.UtilityClass;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.IndexView;
 
+import java.lang.classfile.Annotation;
+import java.lang.classfile.AnnotationElement;
 import java.lang.classfile.ClassBuilder;
+import java.lang.classfile.ClassHierarchyResolver;
+import java.lang.classfile.ClassHierarchyResolver.ClassHierarchyInfo;
+import java.lang.classfile.ClassTransform;
 import java.lang.classfile.constantpool.ClassEntry;
 import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.lang.String.format;
+import static java.util.Objects.isNull;
 
 @UtilityClass
 public final class ClassFileUtils {
+    private static final ClassValue<ClassDesc> CLASS_DESCS = new ClassValue<>() {
+        @Override
+        protected ClassDesc computeValue(Class<?> type) {
+            return type.describeConstable().orElseThrow();
+        }
+    };
+
+    /**
+     * Method types by return type and parameter descriptors. The cache is attached to the return type and only holds
+     * {@link ClassDesc}s, so it never keeps a class loader alive, e.g. across dev mode reloads.
+     */
+    private static final ClassValue<Map<List<ClassDesc>, MethodTypeDesc>> METHOD_TYPE_DESCS = new ClassValue<>() {
+        @Override
+        protected Map<List<ClassDesc>, MethodTypeDesc> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     public static ClassDesc classDesc(Class<?> type) {
-        return type.describeConstable().orElseThrow();
+        return CLASS_DESCS.get(type);
     }
 
     public static ClassDesc arrayClassDesc(Class<?> type) {
         return classDesc(type.arrayType());
     }
 
+    public static MethodTypeDesc methodTypeDesc(Class<?> returnType, Class<?>... parameterTypes) {
+        final var parameters = Arrays.stream(parameterTypes).map(ClassFileUtils::classDesc).toList();
+        return METHOD_TYPE_DESCS.get(returnType).computeIfAbsent(parameters, _ -> MethodTypeDesc.of(classDesc(returnType), parameters));
+    }
+
+    public static String className(ClassDesc desc) {
+        return desc.packageName().isEmpty() ? desc.displayName() : format("%s.%s", desc.packageName(), desc.displayName());
+    }
+
     public static ClassEntry classEntry(ClassBuilder classBuilder, Class<?> type) {
         return classBuilder.constantPool().classEntry(classDesc(type));
     }
+
+    public static Annotation annotation(Class<? extends java.lang.annotation.Annotation> type, AnnotationElement... elements) {
+        return Annotation.of(classDesc(type), elements);
+    }
+
+    /**
+     * Chains the given transforms, so they are applied in order within a single traversal of the class.
+     */
+    public static ClassTransform fuse(List<ClassTransform> transforms) {
+        return transforms.stream().reduce(ClassTransform::andThen).orElse(ClassTransform.ACCEPT_ALL);
+    }
+
+    /**
+     * Whether the given type is an interface, answered from the given Jandex index or, for types missing from it, by
+     * loading the type through the context class loader without initializing it.
+     *
+     * @throws IllegalStateException if the type is neither indexed nor loadable
+     */
+    public static boolean isInterface(IndexView index, ClassDesc type) {
+        final var info = index.getClassByName(DotName.createSimple(className(type)));
+        if (!isNull(info)) return info.isInterface();
+        try {
+            return Class.forName(className(type), false, Thread.currentThread().getContextClassLoader()).isInterface();
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new IllegalStateException(format("Type %s is neither indexed nor loadable", className(type)), e);
+        }
+    }
+
+    /**
+     * A {@link ClassHierarchyResolver} answering from the given Jandex index, so stack map generation does not
+     * need to load or parse application classes. Returns {@code null} for classes missing from the index.
+     */
+    public static ClassHierarchyResolver classHierarchyResolver(IndexView index) {
+        return desc -> {
+            final var info = index.getClassByName(DotName.createSimple(className(desc)));
+            if (isNull(info)) return null;
+            if (info.isInterface()) return ClassHierarchyInfo.ofInterface();
+            return ClassHierarchyInfo.ofClass(isNull(info.superName()) ? null : ClassDesc.of(info.superName().toString()));
+        };
+    }
 }
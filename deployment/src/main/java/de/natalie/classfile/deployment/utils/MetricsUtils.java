@@ -0,0 +1,124 @@
+package de.natalie.classfile.deployment.utils;
+
+import de.natalie.classfile.deployment.builditem.GeneratedClassFileMetricsBuildItem;
+import de.natalie.classfile.deployment.generator.GeneratedClassFile;
+import lombok.experimental.UtilityClass;
+import lombok.extern.jbosslog.JBossLog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.classfile.Attributes;
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.MethodModel;
+import java.lang.classfile.attribute.CodeAttribute;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.className;
+import static java.lang.String.format;
+
+@JBossLog
+@UtilityClass
+public class MetricsUtils {
+    /**
+     * HotSpot's default {@code MaxInlineSize}: methods above this code length are only inlined when they are hot.
+     */
+    public static final int MAX_INLINE_SIZE = 35;
+
+    /**
+     * HotSpot's default {@code FreqInlineSize}: hot methods above this code length are never inlined.
+     */
+    public static final int FREQ_INLINE_SIZE = 325;
+
+    /**
+     * HotSpot's default {@code HugeMethodLimit}: methods above this code length are never JIT compiled.
+     */
+    public static final int HUGE_METHOD_LIMIT = 8000;
+
+    public static GeneratedClassFileMetricsBuildItem metrics(final GeneratedClassFile generated, final ClassFile context) {
+        final var model = context.parse(generated.bytes());
+        final var builder = GeneratedClassFileMetricsBuildItem.builder()
+                                                              .classDesc(generated.classDesc())
+                                                              .generationTime(Duration.ofNanos(generated.generationNanos()))
+                                                              .annotationTime(Duration.ofNanos(generated.annotationNanos()))
+                                                              .cached(generated.cached())
+                                                              .byteSize(generated.bytes().length)
+                                                              .constantPoolSize(model.constantPool().size())
+                                                              .methodCount(model.methods().size());
+
+        var largestMethodCodeLength = 0;
+        for (final var method : model.methods()) {
+            final var codeLength = codeLength(method);
+            largestMethodCodeLength = Math.max(largestMethodCodeLength, codeLength);
+            if (codeLength > FREQ_INLINE_SIZE) builder.inliningOutlier(methodName(method), codeLength);
+            if (codeLength > HUGE_METHOD_LIMIT) {
+                log.warnf("Generated method %s.%s has %d bytes of code and will never be JIT compiled",
+                          className(generated.classDesc()), methodName(method), codeLength);
+            }
+        }
+        return builder.largestMethodCodeLength(largestMethodCodeLength).build();
+    }
+
+    public static int codeLength(final MethodModel method) {
+        return method.findAttribute(Attributes.code()).map(CodeAttribute::codeLength).orElse(0);
+    }
+
+    public static String methodName(final MethodModel method) {
+        return method.methodName().stringValue() + method.methodType().stringValue();
+    }
+
+    /**
+     * A flat, JSON friendly view of the metrics, used for the report and the Dev UI.
+     */
+    public static Map<String, Object> summary(final GeneratedClassFileMetricsBuildItem metrics) {
+        return Map.of("className", className(metrics.classDesc()),
+                      "generationMicros", metrics.generationTime().toNanos() / 1000,
+                      "annotationMicros", metrics.annotationTime().toNanos() / 1000,
+                      "cached", metrics.cached(),
+                      "byteSize", metrics.byteSize(),
+                      "constantPoolSize", metrics.constantPoolSize(),
+                      "methodCount", metrics.methodCount(),
+                      "largestMethodCodeLength", metrics.largestMethodCodeLength(),
+                      "inliningOutliers", String.join(", ", metrics.inliningOutliers().keySet()));
+    }
+
+    public static void writeReport(final Path file, final List<GeneratedClassFileMetricsBuildItem> metrics) {
+        final var beans = metrics.stream().map(MetricsUtils::toJson).collect(Collectors.joining(",\n    ", "[\n    ", "\n  ]"));
+        final var json = format("{%n  \"classCount\": %d,%n  \"totalByteSize\": %d,%n  \"beans\": %s%n}%n",
+                                metrics.size(),
+                                metrics.stream().mapToLong(GeneratedClassFileMetricsBuildItem::byteSize).sum(),
+                                metrics.isEmpty() ? "[]" : beans);
+        try {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String toJson(final GeneratedClassFileMetricsBuildItem metrics) {
+        final var outliers = metrics.inliningOutliers().entrySet().stream()
+                                    .map(entry -> format("\"%s\": %d", escape(entry.getKey()), entry.getValue()))
+                                    .collect(Collectors.joining(", ", "{", "}"));
+        return format("{\"className\": \"%s\", \"generationNanos\": %d, \"annotationNanos\": %d, \"cached\": %b, "
+                      + "\"byteSize\": %d, \"constantPoolSize\": %d, \"methodCount\": %d, \"largestMethodCodeLength\": %d, "
+                      + "\"inliningOutliers\": %s}",
+                      escape(className(metrics.classDesc())),
+                      metrics.generationTime().toNanos(),
+                      metrics.annotationTime().toNanos(),
+                      metrics.cached(),
+                      metrics.byteSize(),
+                      metrics.constantPoolSize(),
+                      metrics.methodCount(),
+                      metrics.largestMethodCodeLength(),
+                      outliers);
+    }
+
+    private static String escape(final String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
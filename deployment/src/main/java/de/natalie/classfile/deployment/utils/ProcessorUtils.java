@@ -1,41 +1,327 @@
 package de.natalie.classfile.deployment.utils;
 
+import de.natalie.classfile.deployment.builditem.InjectedField;
+import de.natalie.classfile.deployment.config.ClassFileBuildTimeConfig.GenerationConfig;
+import de.natalie.classfile.runtime.GeneratedBeanRegistry;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import io.quarkus.arc.InjectableBean;
+import io.quarkus.arc.InstanceHandle;
 import io.quarkus.arc.Unremovable;
+import jakarta.inject.Inject;
 import lombok.experimental.UtilityClass;
-import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.ClassVisitor;
-import org.objectweb.asm.ClassWriter;
-import org.objectweb.asm.Opcodes;
+import org.jboss.jandex.IndexView;
 
 import java.lang.annotation.Annotation;
 import java.lang.classfile.ClassBuilder;
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.ClassFile.ClassHierarchyResolverOption;
+import java.lang.classfile.ClassHierarchyResolver;
+import java.lang.classfile.CodeBuilder;
+import java.lang.classfile.TypeKind;
+import java.lang.classfile.attribute.RuntimeVisibleAnnotationsAttribute;
+import java.lang.classfile.attribute.RuntimeVisibleParameterAnnotationsAttribute;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
+import static de.natalie.classfile.deployment.config.ClassFileBuildTimeConfig.HierarchyResolution.CLASS_LOADING;
+import static de.natalie.classfile.deployment.utils.BootstrapUtils.loadBean;
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.annotation;
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.classDesc;
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.methodTypeDesc;
+import static java.lang.classfile.ClassFile.ACC_FINAL;
+import static java.lang.classfile.ClassFile.ACC_PRIVATE;
 import static java.lang.classfile.ClassFile.ACC_PUBLIC;
+import static java.lang.classfile.ClassFile.ACC_STATIC;
+import static java.lang.classfile.ClassFile.ACC_SYNTHETIC;
+import static java.lang.String.format;
+import static java.lang.constant.ConstantDescs.CD_List;
 import static java.lang.constant.ConstantDescs.CD_Object;
+import static java.lang.constant.ConstantDescs.CD_byte;
+import static java.lang.constant.ConstantDescs.CD_int;
+import static java.lang.constant.ConstantDescs.CD_String;
+import static java.lang.constant.ConstantDescs.CD_void;
 import static java.lang.constant.ConstantDescs.INIT_NAME;
 import static java.lang.constant.ConstantDescs.MTD_void;
+import static java.util.Objects.nonNull;
 
 @UtilityClass
 public class ProcessorUtils {
-    public static byte[] generateScope(final Class<? extends Annotation> scope, final boolean unremovable, final byte[] bytes) {
-        var reader = new ClassReader(bytes);
-        var writer = new ClassWriter(reader, 0);
-
-        var annotator = new ClassVisitor(Opcodes.ASM9, writer) {
-            @Override
-            public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
-                super.visit(version, access, name, signature, superName, interfaces);
-                visitAnnotation(scope.descriptorString(), true).visitEnd();
-                if (unremovable) visitAnnotation(Unremovable.class.descriptorString(), true).visitEnd();
-            }
-        };
+    private static final int REGISTRY_CHUNK_SIZE = 256;
+    private static final ClassDesc CD_MESSAGE_CODEC = ClassDesc.of("io.vertx.core.eventbus.MessageCodec");
+    private static final ClassDesc CD_BUFFER = ClassDesc.of("io.vertx.core.buffer.Buffer");
+
+    /**
+     * Emits the scope and (optionally) the {@link Unremovable} annotation as a single
+     * {@code RuntimeVisibleAnnotations} attribute while the class is being built.
+     * A class file may only carry one such attribute, so the {@code classBuilder} callback must not add its own.
+     */
+    public static void generateScope(final ClassBuilder builder, final Class<? extends Annotation> scope, final boolean unremovable) {
+        builder.with(RuntimeVisibleAnnotationsAttribute.of(classAnnotations(scope, unremovable, List.of())));
+    }
+
+    /**
+     * The class annotations of a generated bean: its scope, if any, {@link Unremovable} if requested and the
+     * additional {@code annotations}, in this order.
+     */
+    public static List<java.lang.classfile.Annotation> classAnnotations(final Class<? extends Annotation> scope, final boolean unremovable,
+                                                                       final List<java.lang.classfile.Annotation> annotations) {
+        final var classAnnotations = new ArrayList<java.lang.classfile.Annotation>(annotations.size() + 2);
+        if (nonNull(scope)) classAnnotations.add(annotation(scope));
+        if (unremovable) classAnnotations.add(annotation(Unremovable.class));
+        classAnnotations.addAll(annotations);
+        return classAnnotations;
+    }
+
+    /**
+     * Creates the {@link ClassFile} context shared by all generated beans of a build.
+     */
+    public static ClassFile classFileContext(final GenerationConfig config, final IndexView index) {
+        return ClassFile.of(config.stackMaps(),
+                            config.debugElements(),
+                            config.deadCode(),
+                            ClassHierarchyResolverOption.of(classHierarchyResolver(config, index)));
+    }
+
+    /**
+     * Resolves classes from the given index, then from class resources of the system class loader and, with
+     * {@code class-hierarchy-resolution=class-loading}, finally by loading them through the context class loader.
+     */
+    public static ClassHierarchyResolver classHierarchyResolver(final GenerationConfig config, final IndexView index) {
+        var resolver = ClassFileUtils.classHierarchyResolver(index).orElse(ClassHierarchyResolver.defaultResolver());
+        if (config.classHierarchyResolution() == CLASS_LOADING) {
+            resolver = resolver.orElse(ClassHierarchyResolver.ofClassLoading(Thread.currentThread().getContextClassLoader()));
+        }
+        return resolver.cached(ConcurrentHashMap::new);
+    }
 
-        reader.accept(annotator, 0);
-        return writer.toByteArray();
+    /**
+     * Describes the configuration of the shared {@link ClassFile} context, of the optimizer and of the JFR event
+     * weaving, so cached bytecode is invalidated whenever one of them changes.
+     */
+    public static String classFileContextKey(final GenerationConfig config) {
+        return String.join(",",
+                           config.stackMaps().name(),
+                           config.debugElements().name(),
+                           config.deadCode().name(),
+                           config.classHierarchyResolution().name(),
+                           String.valueOf(config.optimize()),
+                           config.jfrEvents().map(String::valueOf).orElse(""));
     }
 
     public static void generateConstructor(final ClassBuilder builder) {
         builder.withMethod(INIT_NAME, MTD_void, ACC_PUBLIC, methodBuilder ->
                 methodBuilder.withCode(code -> code.aload(0).invokespecial(CD_Object, INIT_NAME, MTD_void).return_()));
     }
+
+    /**
+     * Emits a {@code private final} field per dependency and an {@code @Inject} constructor assigning them.
+     */
+    public static void generateInjectionConstructor(final ClassBuilder builder, final ClassDesc owner, final List<InjectedField> fields) {
+        fields.forEach(field -> builder.withField(field.name(), field.type(), ACC_PRIVATE | ACC_FINAL));
+
+        final var constructorDesc = MethodTypeDesc.of(CD_void, fields.stream().map(InjectedField::type).toArray(ClassDesc[]::new));
+        final var qualifiers = fields.stream().map(InjectedField::qualifiers).toList();
+        builder.withMethod(INIT_NAME, constructorDesc, ACC_PUBLIC, methodBuilder -> {
+            methodBuilder.with(RuntimeVisibleAnnotationsAttribute.of(annotation(Inject.class)));
+            if (qualifiers.stream().anyMatch(list -> !list.isEmpty())) {
+                methodBuilder.with(RuntimeVisibleParameterAnnotationsAttribute.of(qualifiers));
+            }
+            methodBuilder.withCode(code -> {
+                code.aload(0).invokespecial(CD_Object, INIT_NAME, MTD_void);
+                for (var index = 0; index < fields.size(); index++) {
+                    final var field = fields.get(index);
+                    code.aload(0).aload(code.parameterSlot(index)).putfield(owner, field.name(), field.type());
+                }
+                code.return_();
+            });
+        });
+    }
+
+    /**
+     * Emits the body of a {@link GeneratedBeanRegistry}. Its {@code instances()} method looks up every bean by its
+     * build time identifier with {@link ArcContainer#bean(String)} instead of resolving the beans by type.
+     *
+     * <p>The lookups are split into static {@code instances$<n>} methods of 256 beans each, so registries of many
+     * thousand beans stay below the code size limit of a method.
+     */
+    public static void generateRegistry(final ClassBuilder builder, final ClassDesc registry, final List<String> beanIdentifiers) {
+        final var containerDesc = classDesc(ArcContainer.class);
+        final var handleArrayDesc = classDesc(InstanceHandle.class).arrayType();
+        final var chunkDesc = MethodTypeDesc.of(CD_void, handleArrayDesc, containerDesc);
+        final var chunks = (beanIdentifiers.size() + REGISTRY_CHUNK_SIZE - 1) / REGISTRY_CHUNK_SIZE;
+
+        builder.withFlags(ACC_PUBLIC | ACC_FINAL)
+               .withInterfaceSymbols(classDesc(GeneratedBeanRegistry.class));
+        generateConstructor(builder);
+        builder.withMethodBody("instances", MethodTypeDesc.of(CD_List), ACC_PUBLIC, code -> {
+            final var container = code.allocateLocal(TypeKind.REFERENCE);
+            code.invokestatic(classDesc(Arc.class), "container", MethodTypeDesc.of(containerDesc))
+                .astore(container)
+                .loadConstant(beanIdentifiers.size())
+                .anewarray(handleArrayDesc.componentType());
+            for (var chunk = 0; chunk < chunks; chunk++) {
+                code.dup()
+                    .aload(container)
+                    .invokestatic(registry, "instances$" + chunk, chunkDesc);
+            }
+            code.invokestatic(CD_List, "of", MethodTypeDesc.of(CD_List, CD_Object.arrayType()), true)
+                .areturn();
+        });
+        for (var chunk = 0; chunk < chunks; chunk++) {
+            final var from = chunk * REGISTRY_CHUNK_SIZE;
+            final var to = Math.min(from + REGISTRY_CHUNK_SIZE, beanIdentifiers.size());
+            builder.withMethodBody("instances$" + chunk, chunkDesc, ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC,
+                                   code -> generateRegistryChunk(code, beanIdentifiers, from, to));
+        }
+    }
+
+    private static void generateRegistryChunk(final CodeBuilder code, final List<String> beanIdentifiers, final int from, final int to) {
+        final var containerDesc = classDesc(ArcContainer.class);
+        final var beanDesc = classDesc(InjectableBean.class);
+        final var handleDesc = classDesc(InstanceHandle.class);
+
+        for (var index = from; index < to; index++) {
+            code.aload(0)
+                .loadConstant(index)
+                .aload(1)
+                .aload(1)
+                .ldc(beanIdentifiers.get(index))
+                .invokeinterface(containerDesc, "bean", MethodTypeDesc.of(beanDesc, CD_String))
+                .invokeinterface(containerDesc, "instance", MethodTypeDesc.of(handleDesc, beanDesc))
+                .aastore();
+        }
+        code.return_();
+    }
+
+    /**
+     * Emits a Vert.x {@code MessageCodec} whose {@code transform} casts and returns the payload itself.
+     * The Vert.x types are referenced by name only, so the deployment module does not depend on Vert.x.
+     */
+    public static void generateLocalMessageCodec(final ClassBuilder builder, final ClassDesc payloadType, final String name) {
+        final var unsupported = classDesc(UnsupportedOperationException.class);
+        final Consumer<CodeBuilder> throwUnsupported = code -> code.new_(unsupported)
+                                                                   .dup()
+                                                                   .ldc(format("Codec %s only supports local delivery", name))
+                                                                   .invokespecial(unsupported, INIT_NAME, MethodTypeDesc.of(CD_void, CD_String))
+                                                                   .athrow();
+
+        builder.withFlags(ACC_PUBLIC | ACC_FINAL)
+               .withInterfaceSymbols(CD_MESSAGE_CODEC);
+        generateConstructor(builder);
+        builder.withMethodBody("encodeToWire", MethodTypeDesc.of(CD_void, CD_BUFFER, CD_Object), ACC_PUBLIC, throwUnsupported)
+               .withMethodBody("decodeFromWire", MethodTypeDesc.of(CD_Object, CD_int, CD_BUFFER), ACC_PUBLIC, throwUnsupported)
+               .withMethodBody("transform", MethodTypeDesc.of(CD_Object, CD_Object), ACC_PUBLIC,
+                               code -> code.aload(1).checkcast(payloadType).areturn())
+               .withMethodBody("name", MethodTypeDesc.of(CD_String), ACC_PUBLIC, code -> code.ldc(name).areturn())
+               .withMethodBody("systemCodecID", MethodTypeDesc.of(CD_byte), ACC_PUBLIC, code -> code.iconst_m1().ireturn());
+    }
+
+    /**
+     * Emits an invoker implementing the single abstract method of {@code invokerInterface} by calling
+     * {@code methodName} on the bean of type {@code beanType}, which is resolved once through a dynamic constant.
+     *
+     * @throws IllegalArgumentException if the signatures would need boxing, unboxing or a different parameter count
+     */
+    public static void generateInvoker(final ClassBuilder builder,
+                                       final Class<?> invokerInterface,
+                                       final ClassDesc beanType,
+                                       final boolean beanInterface,
+                                       final String methodName,
+                                       final MethodTypeDesc methodType) {
+        final var interfaceMethod = functionalMethod(invokerInterface);
+        final var invokerType = methodTypeDesc(interfaceMethod.getReturnType(), interfaceMethod.getParameterTypes());
+        if (invokerType.parameterCount() != methodType.parameterCount()) {
+            throw new IllegalArgumentException(format("%s%s cannot invoke %s%s", interfaceMethod.getName(), invokerType.displayDescriptor(),
+                                                      methodName, methodType.displayDescriptor()));
+        }
+
+        builder.withFlags(ACC_PUBLIC | ACC_FINAL)
+               .withInterfaceSymbols(classDesc(invokerInterface))
+               .withMethodBody(interfaceMethod.getName(), invokerType, ACC_PUBLIC, code -> {
+                   loadBean(code, beanType);
+                   for (var index = 0; index < invokerType.parameterCount(); index++) {
+                       code.loadLocal(TypeKind.from(invokerType.parameterType(index)), code.parameterSlot(index));
+                       adapt(code, invokerType.parameterType(index), methodType.parameterType(index));
+                   }
+                   if (beanInterface) {
+                       code.invokeinterface(beanType, methodName, methodType);
+                   } else {
+                       code.invokevirtual(beanType, methodName, methodType);
+                   }
+
+                   if (invokerType.returnType().equals(CD_void)) {
+                       switch (TypeKind.from(methodType.returnType()).slotSize()) {
+                           case 1 -> code.pop();
+                           case 2 -> code.pop2();
+                           default -> { }
+                       }
+                   } else {
+                       adapt(code, methodType.returnType(), invokerType.returnType());
+                   }
+                   code.return_(TypeKind.from(invokerType.returnType()));
+               });
+    }
+
+    /**
+     * The cache key of an invoker generated by {@link #generateInvoker}. It names the invoker class, the implemented
+     * interface method and the target method by owner, name and full descriptor, so overloads never share a key.
+     */
+    public static String invokerCacheKey(final ClassDesc invoker,
+                                         final Class<?> invokerInterface,
+                                         final ClassDesc beanType,
+                                         final boolean beanInterface,
+                                         final String methodName,
+                                         final MethodTypeDesc methodType) {
+        final var interfaceMethod = functionalMethod(invokerInterface);
+        return String.join(" ",
+                           invoker.descriptorString(),
+                           invokerInterface.getName(),
+                           interfaceMethod.getName() + methodTypeDesc(interfaceMethod.getReturnType(), interfaceMethod.getParameterTypes()).descriptorString(),
+                           beanType.descriptorString(),
+                           String.valueOf(beanInterface),
+                           methodName + methodType.descriptorString());
+    }
+
+    /**
+     * The single abstract method of a functional interface, ignoring abstract redeclarations of {@link Object} methods.
+     */
+    private static Method functionalMethod(final Class<?> type) {
+        final var methods = Arrays.stream(type.getMethods())
+                                  .filter(method -> Modifier.isAbstract(method.getModifiers()))
+                                  .filter(method -> !isObjectMethod(method))
+                                  .toList();
+        if (!type.isInterface() || methods.size() != 1) {
+            throw new IllegalArgumentException(format("%s is not a functional interface", type.getName()));
+        }
+        return methods.getFirst();
+    }
+
+    private static boolean isObjectMethod(final Method method) {
+        try {
+            Object.class.getMethod(method.getName(), method.getParameterTypes());
+            return true;
+        } catch (final NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Converts the value on top of the stack between two types without boxing: reference types are cast, primitive
+     * types must be equal.
+     */
+    private static void adapt(final CodeBuilder code, final ClassDesc from, final ClassDesc to) {
+        if (from.equals(to)) return;
+        if (from.isPrimitive() || to.isPrimitive()) {
+            throw new IllegalArgumentException(format("Cannot convert %s to %s without boxing", from.displayName(), to.displayName()));
+        }
+        if (!to.equals(CD_Object)) code.checkcast(to);
+    }
 }
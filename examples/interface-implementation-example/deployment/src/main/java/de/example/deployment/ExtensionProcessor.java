@@ -1,23 +1,44 @@
 package de.example.deployment;
 
+import de.example.runtime.Calculator;
+import de.example.runtime.Catalog;
+import de.example.runtime.Discount;
+import de.example.runtime.DiscountSpecialization;
+import de.example.runtime.Greeter;
 import de.example.runtime.Producer;
+import de.natalie.classfile.deployment.builditem.ClassFileTransformerBuildItem;
+import de.natalie.classfile.deployment.builditem.DeferredClassFileBeanBuildItem;
 import de.natalie.classfile.deployment.builditem.GeneratedClassFileBeanBuildItem;
+import de.natalie.classfile.deployment.builditem.GeneratedInvokerBuildItem;
+import de.natalie.classfile.deployment.builditem.HiddenClassBeanBuildItem;
+import de.natalie.classfile.deployment.utils.BootstrapUtils;
+import io.quarkus.arc.deployment.AdditionalBeanBuildItem;
 import io.quarkus.deployment.annotations.BuildProducer;
 import io.quarkus.deployment.annotations.BuildStep;
 import io.quarkus.deployment.builditem.FeatureBuildItem;
 import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.ConfigProvider;
 
 import java.lang.classfile.ClassBuilder;
+import java.lang.classfile.ClassTransform;
+import java.lang.classfile.CodeBuilder;
+import java.lang.classfile.instruction.ConstantInstruction;
 import java.lang.constant.ClassDesc;
 import java.lang.constant.MethodTypeDesc;
+import java.util.function.IntBinaryOperator;
 import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 
+import static de.natalie.classfile.deployment.utils.BootstrapUtils.loadConfig;
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.classDesc;
 import static de.natalie.classfile.deployment.utils.ClassFileUtils.classEntry;
 import static java.lang.classfile.ClassFile.ACC_PUBLIC;
 import static java.lang.constant.ConstantDescs.CD_String;
+import static java.lang.constant.ConstantDescs.CD_int;
 
 class ExtensionProcessor {
     private static final String FEATURE = "extension";
+    private static final String PRODUCERS = "example.producers";
 
     @BuildStep
     FeatureBuildItem feature() {
@@ -55,16 +76,49 @@ class ExtensionProcessor {
      * @see ClassBuilder
      */
     private static void buildInvoker(ClassBuilder classBuilder) {
+        buildInvoker(classBuilder, "Pong!");
+    }
+
+    private static void buildInvoker(ClassBuilder classBuilder, String reply) {
         final var producerInterface = classEntry(classBuilder, Producer.class);
         final var producerMethodDesc = MethodTypeDesc.of(CD_String);
 
         classBuilder.withInterfaces(producerInterface)
                     .withMethod("produce", producerMethodDesc, ACC_PUBLIC,
-                                methodBuilder -> methodBuilder.withCode(codeBuilder -> codeBuilder.ldc("Pong!").areturn()));
+                                methodBuilder -> methodBuilder.withCode(codeBuilder -> codeBuilder.ldc(reply).areturn()));
     }
 
     /**
-     * Registers the generated {@code Ping} class as a CDI bean during build time.
+     * Generates the bytecode for a class that implements the {@link Producer} interface, returning the value of the
+     * {@code example.reply} configuration property from the {@code produce()} method.
+     *
+     * <p>The resulting class behaves like the following Java code, except that the property is resolved only once,
+     * on the first call, and is a JIT constant afterwards:
+     *
+     * <pre>{@code
+     * @ApplicationScoped
+     * public class ConfiguredPing implements Producer {
+     *     @Override
+     *     public String produce() {
+     *         return ConfigProvider.getConfig().getValue("example.reply", String.class);
+     *     }
+     * }
+     * }</pre>
+     *
+     * @param classBuilder the {@link ClassBuilder} used to define the interface and method structure
+     * @see BootstrapUtils#loadConfig(CodeBuilder, String, ClassDesc)
+     */
+    private static void buildConfiguredInvoker(ClassBuilder classBuilder) {
+        final var producerInterface = classEntry(classBuilder, Producer.class);
+        final var producerMethodDesc = MethodTypeDesc.of(CD_String);
+
+        classBuilder.withInterfaces(producerInterface)
+                    .withMethodBody("produce", producerMethodDesc, ACC_PUBLIC,
+                                    codeBuilder -> loadConfig(codeBuilder, "example.reply", CD_String).areturn());
+    }
+
+    /**
+     * Registers the generated {@code Ping} and {@code ConfiguredPing} classes as CDI beans during build time.
      *
      * <p>This build step uses {@link GeneratedClassFileBeanBuildItem} to produce a class that
      * implements the {@link Producer} interface, returning a static string from the {@code produce()} method.
@@ -74,10 +128,14 @@ class ExtensionProcessor {
      *     <li>{@code @ApplicationScoped} for CDI lifecycle management</li>
      *     <li>{@code unremovable} to prevent removal during optimization</li>
      *     <li>Automatically equipped with a no-arg constructor</li>
+     *     <li>JFR events recording the duration of {@code produce()} calls of {@code Ping}</li>
      * </ul>
      *
      * <p>This allows the {@code Ping} class to be injected wherever the {@code Producer} interface is required.
      *
+     * <p>The build time property {@code example.producers} adds that many {@code ScaledPing<i>} beans returning
+     * {@code "Pong <i>!"}, which the startup harness uses to scale the number of generated beans.
+     *
      * @param generatedClasses the {@link BuildProducer} that collects build items for generated classes
      * @see GeneratedClassFileBeanBuildItem
      * @see Producer
@@ -90,6 +148,142 @@ class ExtensionProcessor {
                                                                 .scope(ApplicationScoped.class)
                                                                 .classDesc(ClassDesc.of("de.example.Ping"))
                                                                 .classBuilder(ExtensionProcessor::buildInvoker)
+                                                                .jfrEvents(true)
+                                                                .build());
+        generatedClasses.produce(GeneratedClassFileBeanBuildItem.builder()
+                                                                .unremovable(true)
+                                                                .generateConstructor(true)
+                                                                .scope(ApplicationScoped.class)
+                                                                .classDesc(ClassDesc.of("de.example.ConfiguredPing"))
+                                                                .classBuilder(ExtensionProcessor::buildConfiguredInvoker)
                                                                 .build());
+
+        final var producers = ConfigProvider.getConfig().getOptionalValue(PRODUCERS, Integer.class).orElse(0);
+        for (var index = 0; index < producers; index++) {
+            final var reply = "Pong " + index + "!";
+            generatedClasses.produce(GeneratedClassFileBeanBuildItem.builder()
+                                                                    .unremovable(true)
+                                                                    .generateConstructor(true)
+                                                                    .scope(ApplicationScoped.class)
+                                                                    .classDesc(ClassDesc.of("de.example.ScaledPing" + index))
+                                                                    .classBuilder(classBuilder -> buildInvoker(classBuilder, reply))
+                                                                    .build());
+        }
+    }
+
+    /**
+     * Generates the bytecode for a class that implements the {@link Producer} interface, returning
+     * {@code "Catalog pong!"} from the {@code produce()} method.
+     *
+     * @param classBuilder the {@link ClassBuilder} used to define the interface and method structure
+     */
+    private static void buildCatalogInvoker(ClassBuilder classBuilder) {
+        final var producerInterface = classEntry(classBuilder, Producer.class);
+        final var producerMethodDesc = MethodTypeDesc.of(CD_String);
+
+        classBuilder.withInterfaces(producerInterface)
+                    .withMethodBody("produce", producerMethodDesc, ACC_PUBLIC, codeBuilder -> codeBuilder.ldc("Catalog pong!").areturn());
+    }
+
+    /**
+     * Declares two removable beans of a catalog whose bytecode is generated only if ArC keeps them.
+     *
+     * <p>{@code CatalogPing} is injected as {@code @Catalog Producer} and generated. {@code UnusedPing} is never
+     * injected, so ArC removes it and its {@code classBuilder} callback never runs.
+     *
+     * @param deferredBeans the {@link BuildProducer} that collects the deferred beans
+     * @see DeferredClassFileBeanBuildItem
+     */
+    @BuildStep
+    void produceCatalog(BuildProducer<DeferredClassFileBeanBuildItem> deferredBeans) {
+        deferredBeans.produce(DeferredClassFileBeanBuildItem.builder()
+                                                            .bean(GeneratedClassFileBeanBuildItem.builder()
+                                                                                                 .generateConstructor(true)
+                                                                                                 .scope(ApplicationScoped.class)
+                                                                                                 .classDesc(ClassDesc.of("de.example.CatalogPing"))
+                                                                                                 .classBuilder(ExtensionProcessor::buildCatalogInvoker)
+                                                                                                 .build())
+                                                            .beanType(classDesc(Producer.class))
+                                                            .qualifier(Catalog.class)
+                                                            .build());
+        deferredBeans.produce(DeferredClassFileBeanBuildItem.builder()
+                                                            .bean(GeneratedClassFileBeanBuildItem.builder()
+                                                                                                 .generateConstructor(true)
+                                                                                                 .scope(ApplicationScoped.class)
+                                                                                                 .classDesc(ClassDesc.of("de.example.UnusedPing"))
+                                                                                                 .classBuilder(ExtensionProcessor::buildInvoker)
+                                                                                                 .build())
+                                                            .beanType(classDesc(Producer.class))
+                                                            .build());
+    }
+
+    /**
+     * Generates reflection-free invokers for the methods of the {@link Calculator} bean.
+     *
+     * <p>{@code AddInvoker} implements {@link IntBinaryOperator} and passes both {@code int} arguments to
+     * {@code Calculator.add} without boxing. {@code LengthInvoker} implements {@link ToIntFunction} and casts its
+     * argument to {@code String} for {@code Calculator.length}.
+     *
+     * @param additionalBeans the {@link BuildProducer} that registers the {@link Calculator} bean
+     * @param invokers        the {@link BuildProducer} that collects the invokers
+     * @see GeneratedInvokerBuildItem
+     */
+    @BuildStep
+    void produceInvokers(BuildProducer<AdditionalBeanBuildItem> additionalBeans, BuildProducer<GeneratedInvokerBuildItem> invokers) {
+        additionalBeans.produce(AdditionalBeanBuildItem.unremovableOf(Calculator.class));
+        invokers.produce(GeneratedInvokerBuildItem.builder()
+                                                  .classDesc(ClassDesc.of("de.example.AddInvoker"))
+                                                  .invokerInterface(IntBinaryOperator.class)
+                                                  .beanType(classDesc(Calculator.class))
+                                                  .methodName("add")
+                                                  .methodType(MethodTypeDesc.of(CD_int, CD_int, CD_int))
+                                                  .build());
+        invokers.produce(GeneratedInvokerBuildItem.builder()
+                                                  .classDesc(ClassDesc.of("de.example.LengthInvoker"))
+                                                  .invokerInterface(ToIntFunction.class)
+                                                  .beanType(classDesc(Calculator.class))
+                                                  .methodName("length")
+                                                  .methodType(MethodTypeDesc.of(CD_int, CD_String))
+                                                  .build());
+    }
+
+    /**
+     * Registers a {@link Discount} bean implemented by a hidden class, generated when the application starts and
+     * specialized for the runtime value of {@code example.discount}.
+     *
+     * @return the {@link HiddenClassBeanBuildItem} describing the bean
+     * @see DiscountSpecialization
+     */
+    @BuildStep
+    HiddenClassBeanBuildItem produceDiscount() {
+        return HiddenClassBeanBuildItem.builder()
+                                       .specialization(classDesc(DiscountSpecialization.class))
+                                       .beanType(classDesc(Discount.class))
+                                       .unremovable(true)
+                                       .build();
+    }
+
+    /**
+     * Rewrites the existing {@link Greeter} class, replacing the {@code "Hello"} constant returned by
+     * {@code greet()} with {@code "Hello from the Class-File API"}.
+     *
+     * <p>Only the body of {@code greet()} is transformed; all other methods are copied from the original class file.
+     *
+     * @return the {@link ClassFileTransformerBuildItem} describing the transform
+     * @see ClassFileTransformerBuildItem
+     */
+    @BuildStep
+    ClassFileTransformerBuildItem transformGreeter() {
+        final var transform = ClassTransform.transformingMethodBodies(method -> method.methodName().equalsString("greet"), (builder, element) -> {
+            if (element instanceof ConstantInstruction constant && "Hello".equals(constant.constantValue())) {
+                builder.ldc("Hello from the Class-File API");
+            } else {
+                builder.with(element);
+            }
+        });
+        return ClassFileTransformerBuildItem.builder()
+                                            .classDesc(classDesc(Greeter.class))
+                                            .transform(transform)
+                                            .build();
     }
 }
@@ -0,0 +1,123 @@
+package de.example;
+
+import de.example.runtime.Calculator;
+import de.example.runtime.Producer;
+import de.natalie.classfile.deployment.builditem.GeneratedClassFileBeanBuildItem;
+import de.natalie.classfile.deployment.config.ClassFileBuildTimeConfig;
+import de.natalie.classfile.deployment.config.ClassFileBuildTimeConfig.GenerationConfig;
+import de.natalie.classfile.deployment.generator.ClassFileBeanCache;
+import de.natalie.classfile.deployment.generator.ClassFileBeanGenerator;
+import de.natalie.classfile.deployment.generator.GeneratedClassFile;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Singleton;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.classfile.ClassBuilder;
+import java.lang.classfile.ClassFile;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.classDesc;
+import static de.natalie.classfile.deployment.utils.ProcessorUtils.classFileContextKey;
+import static de.natalie.classfile.deployment.utils.ProcessorUtils.generateInvoker;
+import static de.natalie.classfile.deployment.utils.ProcessorUtils.invokerCacheKey;
+import static java.lang.classfile.ClassFile.ACC_PUBLIC;
+import static java.lang.constant.ConstantDescs.CD_String;
+import static java.lang.constant.ConstantDescs.CD_int;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Generates the same bean repeatedly through a {@link ClassFileBeanCache} and checks that it is only served from the
+ * cache as long as the generation settings stay the same, and that invokers of overloaded methods never share an entry.
+ */
+public class CacheTest {
+    private static final GeneratedClassFileBeanBuildItem BEAN = GeneratedClassFileBeanBuildItem.builder()
+                                                                                               .generateConstructor(true)
+                                                                                               .scope(ApplicationScoped.class)
+                                                                                               .classDesc(ClassDesc.of("de.example.cache.CachedPing"))
+                                                                                               .classBuilder(CacheTest::buildProducer)
+                                                                                               .build();
+    private static final ClassDesc INVOKER = ClassDesc.of("de.example.cache.LengthInvoker");
+    private static final ClassDesc CALCULATOR = classDesc(Calculator.class);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void test() {
+        final var defaults = generation(Map.of());
+        final var generated = generate(defaults);
+        assertFalse(generated.cached());
+
+        final var cached = generate(defaults);
+        assertTrue(cached.cached());
+        assertArrayEquals(generated.bytes(), cached.bytes());
+
+        final var jfrEvents = generation(Map.of("quarkus.class-file-api.generation.jfr-events", "true"));
+        final var instrumented = generate(jfrEvents);
+        assertFalse(instrumented.cached());
+        assertNotEquals(generated.bytes().length, instrumented.bytes().length);
+        assertTrue(generate(jfrEvents).cached());
+
+        assertFalse(generate(generation(Map.of("quarkus.class-file-api.generation.debug-elements", "drop-debug"))).cached());
+    }
+
+    @Test
+    public void testInvokerOverloads() {
+        final var defaults = generation(Map.of());
+        final var string = generate(defaults, invoker(MethodTypeDesc.of(CD_int, CD_String)));
+        assertFalse(string.cached());
+
+        final var charSequence = generate(defaults, invoker(MethodTypeDesc.of(CD_int, classDesc(CharSequence.class))));
+        assertFalse(charSequence.cached());
+        assertFalse(Arrays.equals(string.bytes(), charSequence.bytes()));
+
+        assertTrue(generate(defaults, invoker(MethodTypeDesc.of(CD_int, CD_String))).cached());
+    }
+
+    private GeneratedClassFile generate(final GenerationConfig config) {
+        return generate(config, BEAN);
+    }
+
+    private GeneratedClassFile generate(final GenerationConfig config, final GeneratedClassFileBeanBuildItem bean) {
+        final var cache = new ClassFileBeanCache(directory, Long.MAX_VALUE, classFileContextKey(config));
+        return new ClassFileBeanGenerator(config, ClassFile.of(), cache).generate(List.of(bean)).getFirst();
+    }
+
+    /**
+     * An invoker of one of the {@code Calculator.length} overloads, declared like {@code generateInvokers} does.
+     */
+    private static GeneratedClassFileBeanBuildItem invoker(final MethodTypeDesc methodType) {
+        return GeneratedClassFileBeanBuildItem.builder()
+                                              .generateConstructor(true)
+                                              .scope(Singleton.class)
+                                              .classDesc(INVOKER)
+                                              .classBuilder(builder -> generateInvoker(builder, ToIntFunction.class, CALCULATOR, false, "length", methodType))
+                                              .cacheKey(invokerCacheKey(INVOKER, ToIntFunction.class, CALCULATOR, false, "length", methodType))
+                                              .build();
+    }
+
+    private static GenerationConfig generation(final Map<String, String> properties) {
+        return new SmallRyeConfigBuilder().addDiscoveredConverters()
+                                          .withMapping(ClassFileBuildTimeConfig.class)
+                                          .withDefaultValues(properties)
+                                          .build()
+                                          .getConfigMapping(ClassFileBuildTimeConfig.class)
+                                          .generation();
+    }
+
+    private static void buildProducer(ClassBuilder classBuilder) {
+        classBuilder.withInterfaceSymbols(classDesc(Producer.class))
+                    .withMethodBody("produce", MethodTypeDesc.of(CD_String), ACC_PUBLIC, code -> code.ldc("Cached pong!").areturn());
+    }
+}
@@ -0,0 +1,79 @@
+package de.example;
+
+import de.example.runtime.Producer;
+import de.natalie.classfile.deployment.builditem.GeneratedClassFileBeanBuildItem;
+import de.natalie.classfile.deployment.config.ClassFileBuildTimeConfig;
+import de.natalie.classfile.deployment.generator.ClassFileBeanGenerator;
+import de.natalie.classfile.deployment.generator.ClassFileGenerationException;
+import io.quarkus.arc.Unremovable;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Named;
+import org.junit.jupiter.api.Test;
+
+import java.lang.classfile.Annotation;
+import java.lang.classfile.AnnotationElement;
+import java.lang.classfile.Attributes;
+import java.lang.classfile.ClassBuilder;
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.attribute.RuntimeVisibleAnnotationsAttribute;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.classDesc;
+import static java.lang.classfile.ClassFile.ACC_PUBLIC;
+import static java.lang.constant.ConstantDescs.CD_String;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that declared class annotations are written together with the scope and {@code @Unremovable}, and that a
+ * {@code classBuilder} callback replacing that attribute fails the generation.
+ */
+public class ClassAnnotationsTest {
+    private static final Annotation NAMED = Annotation.of(classDesc(Named.class), AnnotationElement.ofString("value", "pong"));
+
+    @Test
+    public void test() {
+        final var generated = generate(bean(ClassAnnotationsTest::buildProducer));
+        final var attribute = ClassFile.of().parse(generated).findAttribute(Attributes.runtimeVisibleAnnotations()).orElseThrow();
+
+        assertEquals(List.of(classDesc(ApplicationScoped.class), classDesc(Unremovable.class), classDesc(Named.class)),
+                     attribute.annotations().stream().map(Annotation::classSymbol).toList());
+    }
+
+    @Test
+    public void testCallbackAnnotations() {
+        final var exception = assertThrows(ClassFileGenerationException.class,
+                                           () -> generate(bean(classBuilder -> buildProducer(classBuilder.with(RuntimeVisibleAnnotationsAttribute.of(NAMED))))));
+        assertTrue(exception.getMessage().contains("classAnnotation"), exception.getMessage());
+    }
+
+    private static GeneratedClassFileBeanBuildItem bean(final Consumer<ClassBuilder> builder) {
+        return GeneratedClassFileBeanBuildItem.builder()
+                                              .generateConstructor(true)
+                                              .unremovable(true)
+                                              .scope(ApplicationScoped.class)
+                                              .classAnnotation(NAMED)
+                                              .classDesc(ClassDesc.of("de.example.annotations.NamedPing"))
+                                              .classBuilder(builder)
+                                              .build();
+    }
+
+    private static byte[] generate(final GeneratedClassFileBeanBuildItem bean) {
+        final var config = new SmallRyeConfigBuilder().addDiscoveredConverters()
+                                                      .withMapping(ClassFileBuildTimeConfig.class)
+                                                      .build()
+                                                      .getConfigMapping(ClassFileBuildTimeConfig.class)
+                                                      .generation();
+        return new ClassFileBeanGenerator(config, ClassFile.of(), null).generate(List.of(bean)).getFirst().bytes();
+    }
+
+    private static void buildProducer(final ClassBuilder classBuilder) {
+        classBuilder.withInterfaceSymbols(classDesc(Producer.class))
+                    .withMethodBody("produce", MethodTypeDesc.of(CD_String), ACC_PUBLIC, code -> code.ldc("Named pong!").areturn());
+    }
+}
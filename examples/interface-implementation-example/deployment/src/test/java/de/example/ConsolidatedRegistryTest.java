@@ -0,0 +1,43 @@
+package de.example;
+
+import de.example.runtime.Producer;
+import de.natalie.classfile.deployment.builditem.GeneratedBeanRegistryBuildItem;
+import io.quarkus.test.QuarkusUnitTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.lang.constant.ClassDesc;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.classDesc;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Requests a registry of {@link Producer} beans while consolidation is enabled, and checks that the build fails instead
+ * of leaving the consolidated producers out of the registry.
+ */
+public class ConsolidatedRegistryTest {
+    @RegisterExtension
+    static final QuarkusUnitTest extension = new QuarkusUnitTest().withApplicationRoot(_ -> { })
+                                                                  .overrideConfigKey("example.reply", "Configured pong!")
+                                                                  .overrideConfigKey("quarkus.class-file-api.consolidation.enabled", "true")
+                                                                  .addBuildChainCustomizer(builder -> builder.addBuildStep(context -> context.produce(
+                                                                                                                     GeneratedBeanRegistryBuildItem.builder()
+                                                                                                                                                   .classDesc(ClassDesc.of("de.example.Producers"))
+                                                                                                                                                   .beanType(classDesc(Producer.class))
+                                                                                                                                                   .build()))
+                                                                                                             .produces(GeneratedBeanRegistryBuildItem.class)
+                                                                                                             .build())
+                                                                  .assertException(exception -> assertTrue(Stream.iterate(exception, Throwable::getCause)
+                                                                                                                 .limit(16)
+                                                                                                                 .takeWhile(Objects::nonNull)
+                                                                                                                 .anyMatch(cause -> String.valueOf(cause.getMessage()).contains("de.example.Producers")),
+                                                                                                           exception.toString()));
+
+    @Test
+    public void test() {
+        fail("The build should have failed");
+    }
+}
@@ -0,0 +1,29 @@
+package de.example;
+
+import de.example.runtime.Producer;
+import io.quarkus.arc.Arc;
+import io.quarkus.test.QuarkusUnitTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ConsolidationTest {
+    @RegisterExtension
+    static final QuarkusUnitTest extension = new QuarkusUnitTest().withApplicationRoot(_ -> { })
+                                                                  .overrideConfigKey("example.reply", "Configured pong!")
+                                                                  .overrideConfigKey("quarkus.class-file-api.consolidation.enabled", "true");
+
+    @Test
+    public void test() throws ClassNotFoundException {
+        final var replies = Arc.container().select(Producer.class).stream().map(Producer::produce).collect(Collectors.toSet());
+
+        assertEquals(Set.of("Pong!", "Configured pong!"), replies);
+        assertThrows(ClassNotFoundException.class, () -> Class.forName("de.example.Ping"));
+        Class.forName("de.example.ConsolidatedBeans0");
+    }
+}
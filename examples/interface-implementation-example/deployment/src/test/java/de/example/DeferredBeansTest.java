@@ -0,0 +1,108 @@
+package de.example;
+
+import de.example.runtime.Producer;
+import de.natalie.classfile.deployment.builditem.DeferredClassFileBeanBuildItem;
+import de.natalie.classfile.deployment.builditem.GeneratedClassFileBeanBuildItem;
+import de.natalie.classfile.deployment.builditem.GeneratedClassFileMetricsBuildItem;
+import de.natalie.classfile.deployment.builditem.GeneratedClassFilesBuildItem;
+import io.quarkus.builder.BuildContext;
+import io.quarkus.deployment.builditem.GeneratedResourceBuildItem;
+import io.quarkus.test.QuarkusUnitTest;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.lang.classfile.ClassBuilder;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.classDesc;
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.className;
+import static java.lang.classfile.ClassFile.ACC_PUBLIC;
+import static java.lang.constant.ConstantDescs.CD_String;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Declares two deferred beans with the same scope, bean types and qualifiers as the {@code UnusedPing} of the example,
+ * one of them unremovable. Only the unremovable bean is kept by ArC, so only its class is generated, listed by a
+ * {@link GeneratedClassFilesBuildItem} and measured like the other generated classes.
+ */
+public class DeferredBeansTest {
+    private static final String RESOURCE = "deferred-classes.txt";
+
+    @RegisterExtension
+    static final QuarkusUnitTest extension = new QuarkusUnitTest().withApplicationRoot(_ -> { })
+                                                                  .overrideConfigKey("example.reply", "Configured pong!")
+                                                                  .overrideConfigKey("quarkus.class-file-api.metrics.enabled", "true")
+                                                                  .addBuildChainCustomizer(chain -> chain.addBuildStep(context -> {
+                                                                                                             context.produce(deferredBean("de.example.RetainedPing", true));
+                                                                                                             context.produce(deferredBean("de.example.RemovedPing", false));
+                                                                                                         })
+                                                                                                         .produces(DeferredClassFileBeanBuildItem.class)
+                                                                                                         .build())
+                                                                  .addBuildChainCustomizer(chain -> chain.addBuildStep(DeferredBeansTest::writeClasses)
+                                                                                                         .consumes(GeneratedClassFilesBuildItem.class)
+                                                                                                         .consumes(GeneratedClassFileMetricsBuildItem.class)
+                                                                                                         .produces(GeneratedResourceBuildItem.class)
+                                                                                                         .build());
+
+    @Test
+    public void test() {
+        assertDoesNotThrow(() -> Class.forName("de.example.RetainedPing"));
+        assertThrows(ClassNotFoundException.class, () -> Class.forName("de.example.RemovedPing"));
+        assertThrows(ClassNotFoundException.class, () -> Class.forName("de.example.UnusedPing"));
+    }
+
+    @Test
+    public void testBookkeeping() throws IOException {
+        try (final var stream = Thread.currentThread().getContextClassLoader().getResourceAsStream(RESOURCE)) {
+            final var lines = new String(stream.readAllBytes(), UTF_8).lines().toList();
+
+            assertEquals(2, lines.size());
+            lines.forEach(line -> assertTrue(List.of(line.split(" ")).contains("de.example.RetainedPing"), line));
+            lines.forEach(line -> assertFalse(List.of(line.split(" ")).contains("de.example.RemovedPing"), line));
+        }
+    }
+
+    /**
+     * Writes the listed classes into the first line and the measured classes into the second line of a generated
+     * resource, since both only exist at build time.
+     */
+    private static void writeClasses(final BuildContext context) {
+        final var listed = context.consumeMulti(GeneratedClassFilesBuildItem.class).stream()
+                                  .flatMap(generated -> generated.classDescs().stream());
+        final var measured = context.consumeMulti(GeneratedClassFileMetricsBuildItem.class).stream()
+                                    .map(GeneratedClassFileMetricsBuildItem::classDesc);
+        final var lines = Stream.of(listed, measured)
+                                .map(classDescs -> classDescs.map(classDesc -> className(classDesc)).collect(Collectors.joining(" ")))
+                                .collect(Collectors.joining("\n"));
+        context.produce(new GeneratedResourceBuildItem(RESOURCE, lines.getBytes(UTF_8)));
+    }
+
+    private static DeferredClassFileBeanBuildItem deferredBean(final String className, final boolean unremovable) {
+        return DeferredClassFileBeanBuildItem.builder()
+                                             .bean(GeneratedClassFileBeanBuildItem.builder()
+                                                                                  .unremovable(unremovable)
+                                                                                  .generateConstructor(true)
+                                                                                  .scope(ApplicationScoped.class)
+                                                                                  .classDesc(ClassDesc.of(className))
+                                                                                  .classBuilder(DeferredBeansTest::buildProducer)
+                                                                                  .build())
+                                             .beanType(classDesc(Producer.class))
+                                             .build();
+    }
+
+    private static void buildProducer(ClassBuilder classBuilder) {
+        classBuilder.withInterfaceSymbols(classDesc(Producer.class))
+                    .withMethodBody("produce", MethodTypeDesc.of(CD_String), ACC_PUBLIC, code -> code.ldc("Deferred pong!").areturn());
+    }
+}
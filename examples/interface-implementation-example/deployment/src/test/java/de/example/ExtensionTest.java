@@ -1,16 +1,37 @@
 package de.example;
 
+import de.example.runtime.Catalog;
+import de.example.runtime.Discount;
+import de.example.runtime.DiscountSpecialization;
+import de.example.runtime.Greeter;
 import de.example.runtime.Producer;
+import de.natalie.classfile.runtime.GeneratedMethodEvent;
+import de.natalie.classfile.runtime.HiddenClassSpecializer;
 import io.quarkus.arc.Arc;
 import io.quarkus.test.QuarkusUnitTest;
+import jakarta.inject.Inject;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.function.IntBinaryOperator;
+import java.util.function.ToIntFunction;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ExtensionTest {
     @RegisterExtension
-    static final QuarkusUnitTest extension = new QuarkusUnitTest().withApplicationRoot(_ -> { });
+    static final QuarkusUnitTest extension = new QuarkusUnitTest().withApplicationRoot(_ -> { })
+                                                                  .overrideConfigKey("example.reply", "Configured pong!")
+                                                                  .overrideConfigKey("example.discount", "10");
 
     @Test
     public void test() throws ClassNotFoundException {
@@ -21,4 +42,78 @@ public class ExtensionTest {
             assertEquals("Pong!", producer.produce());
         }
     }
+
+    @Test
+    public void testJfrEvents() throws ClassNotFoundException, IOException {
+        final var producerClass = Class.forName("de.example.Ping");
+        final var file = Files.createTempFile("generated-method", ".jfr");
+
+        try (final var recording = new Recording(); final var instance = Arc.container().instance(producerClass)) {
+            recording.enable(GeneratedMethodEvent.NAME).withThreshold(Duration.ZERO);
+            recording.start();
+            assertEquals("Pong!", ((Producer) instance.get()).produce());
+            recording.stop();
+            recording.dump(file);
+
+            final var events = RecordingFile.readAllEvents(file);
+            assertTrue(events.stream().anyMatch(event -> event.getString("method").equals("produce")
+                                                         && event.getClass("beanClass").getName().equals("de.example.Ping")));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testConfigConstant() throws ClassNotFoundException {
+        final var producerClass = Class.forName("de.example.ConfiguredPing");
+
+        try (final var instance = Arc.container().instance(producerClass)) {
+            final var producer = (Producer) instance.get();
+            assertEquals("Configured pong!", producer.produce());
+            assertEquals("Configured pong!", producer.produce());
+        }
+    }
+
+    @Inject
+    @Catalog
+    Producer catalogPing;
+
+    @Test
+    public void testDeferred() {
+        assertEquals("Catalog pong!", catalogPing.produce());
+        assertThrows(ClassNotFoundException.class, () -> Class.forName("de.example.UnusedPing"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testInvoker() {
+        final var add = Arc.container().instance(IntBinaryOperator.class).get();
+        final var length = (ToIntFunction<String>) Arc.container().instance(ToIntFunction.class).get();
+
+        assertEquals(5, add.applyAsInt(2, 3));
+        assertEquals(5, length.applyAsInt("Pong!"));
+    }
+
+    @Inject
+    Discount discount;
+
+    @Test
+    public void testHiddenClass() {
+        assertEquals(90, discount.apply(100));
+        assertTrue(discount.getClass().isHidden());
+
+        final var specializer = new HiddenClassSpecializer<>(new DiscountSpecialization(), 2);
+        final var half = specializer.get(50);
+        assertEquals(50, half.apply(100));
+        assertSame(half, specializer.get(50));
+        assertEquals(75, specializer.get(25).apply(100));
+        assertEquals(0, specializer.get(100).apply(100));
+        assertEquals(2, specializer.size());
+        assertNotSame(half, specializer.get(50));
+    }
+
+    @Test
+    public void testTransformer() {
+        assertEquals("Hello from the Class-File API", new Greeter().greet());
+    }
 }
@@ -0,0 +1,52 @@
+package de.example;
+
+import de.natalie.classfile.deployment.builditem.GeneratedInvokerBuildItem;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.Unremovable;
+import io.quarkus.test.QuarkusUnitTest;
+import jakarta.inject.Singleton;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.classDesc;
+import static java.lang.constant.ConstantDescs.CD_Object;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Generates an invoker of a bean type which is not part of the Jandex index, a JDK interface, and checks that it is
+ * still called as an interface.
+ */
+public class InvokerTest {
+    @RegisterExtension
+    static final QuarkusUnitTest extension = new QuarkusUnitTest().withApplicationRoot(jar -> jar.addClasses(Answer.class))
+                                                                  .overrideConfigKey("example.reply", "Configured pong!")
+                                                                  .addBuildChainCustomizer(builder -> builder.addBuildStep(context -> context.produce(
+                                                                                                                     GeneratedInvokerBuildItem.builder()
+                                                                                                                                              .classDesc(ClassDesc.of("de.example.AnswerInvoker"))
+                                                                                                                                              .invokerInterface(Supplier.class)
+                                                                                                                                              .beanType(classDesc(Callable.class))
+                                                                                                                                              .methodName("call")
+                                                                                                                                              .methodType(MethodTypeDesc.of(CD_Object))
+                                                                                                                                              .build()))
+                                                                                                             .produces(GeneratedInvokerBuildItem.class)
+                                                                                                             .build());
+
+    @Test
+    public void test() {
+        assertEquals(42, Arc.container().instance(Supplier.class).get().get());
+    }
+
+    @Singleton
+    @Unremovable
+    public static class Answer implements Callable<Object> {
+        @Override
+        public Object call() {
+            return 42;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package de.example;
+
+import de.natalie.classfile.deployment.builditem.GeneratedClassFileMetricsBuildItem;
+import io.quarkus.builder.BuildContext;
+import io.quarkus.deployment.builditem.GeneratedResourceBuildItem;
+import io.quarkus.test.QuarkusUnitTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.className;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Builds the example with metrics enabled and checks the {@link GeneratedClassFileMetricsBuildItem} of {@code Ping}.
+ *
+ * <p>The metrics only exist at build time, so a build step writes them into a generated resource which the test reads
+ * back.
+ */
+public class MetricsTest {
+    private static final String RESOURCE = "class-file-metrics.txt";
+
+    @RegisterExtension
+    static final QuarkusUnitTest extension = new QuarkusUnitTest().withApplicationRoot(_ -> { })
+                                                                  .overrideConfigKey("example.reply", "Configured pong!")
+                                                                  .overrideConfigKey("quarkus.class-file-api.metrics.enabled", "true")
+                                                                  .addBuildChainCustomizer(chain -> chain.addBuildStep(MetricsTest::writeMetrics)
+                                                                                                         .consumes(GeneratedClassFileMetricsBuildItem.class)
+                                                                                                         .produces(GeneratedResourceBuildItem.class)
+                                                                                                         .build());
+
+    @Test
+    public void test() throws IOException {
+        final var metrics = metrics().get("de.example.Ping");
+
+        assertFalse(Boolean.parseBoolean(metrics[1]));
+        assertTrue(Long.parseLong(metrics[2]) > 0, "generation time");
+        assertTrue(Long.parseLong(metrics[3]) > 0, "annotation time");
+        assertTrue(Long.parseLong(metrics[3]) < Long.parseLong(metrics[2]), "annotation time within generation time");
+        assertTrue(Integer.parseInt(metrics[4]) > 0, "byte size");
+        assertTrue(Integer.parseInt(metrics[5]) > 0, "constant pool size");
+        assertTrue(Integer.parseInt(metrics[6]) >= 2, "method count");
+        assertTrue(Integer.parseInt(metrics[7]) > 0, "largest method code length");
+        assertEquals(0, Integer.parseInt(metrics[8]), "inlining outliers");
+    }
+
+    private static Map<String, String[]> metrics() throws IOException {
+        try (final var stream = Thread.currentThread().getContextClassLoader().getResourceAsStream(RESOURCE)) {
+            return new String(stream.readAllBytes(), UTF_8).lines()
+                                                           .map(line -> line.split(" "))
+                                                           .collect(Collectors.toMap(fields -> fields[0], Function.identity()));
+        }
+    }
+
+    private static void writeMetrics(final BuildContext context) {
+        final var lines = context.consumeMulti(GeneratedClassFileMetricsBuildItem.class).stream()
+                                 .map(MetricsTest::line)
+                                 .collect(Collectors.joining("\n"));
+        context.produce(new GeneratedResourceBuildItem(RESOURCE, lines.getBytes(UTF_8)));
+    }
+
+    private static String line(final GeneratedClassFileMetricsBuildItem metrics) {
+        return String.join(" ", List.of(className(metrics.classDesc()),
+                                       String.valueOf(metrics.cached()),
+                                       String.valueOf(metrics.generationTime().toNanos()),
+                                       String.valueOf(metrics.annotationTime().toNanos()),
+                                       String.valueOf(metrics.byteSize()),
+                                       String.valueOf(metrics.constantPoolSize()),
+                                       String.valueOf(metrics.methodCount()),
+                                       String.valueOf(metrics.largestMethodCodeLength()),
+                                       String.valueOf(metrics.inliningOutliers().size())));
+    }
+}
@@ -0,0 +1,113 @@
+package de.example;
+
+import de.natalie.classfile.deployment.generator.ClassFileOptimizer;
+import org.junit.jupiter.api.Test;
+
+import java.lang.classfile.ClassBuilder;
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.ClassModel;
+import java.lang.classfile.Instruction;
+import java.lang.classfile.MethodModel;
+import java.lang.classfile.Opcode;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.function.Function;
+
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.classDesc;
+import static de.natalie.classfile.deployment.utils.MetricsUtils.codeLength;
+import static de.natalie.classfile.deployment.utils.ProcessorUtils.generateConstructor;
+import static java.lang.classfile.ClassFile.ACC_PUBLIC;
+import static java.lang.classfile.Opcode.ALOAD_1;
+import static java.lang.classfile.Opcode.ARETURN;
+import static java.lang.classfile.Opcode.ARRAYLENGTH;
+import static java.lang.classfile.Opcode.BIPUSH;
+import static java.lang.classfile.Opcode.CHECKCAST;
+import static java.lang.classfile.Opcode.DUP;
+import static java.lang.classfile.Opcode.GETSTATIC;
+import static java.lang.classfile.Opcode.INVOKESTATIC;
+import static java.lang.classfile.Opcode.INVOKEVIRTUAL;
+import static java.lang.classfile.Opcode.LDC;
+import static java.lang.classfile.Opcode.POP;
+import static java.lang.constant.ConstantDescs.CD_Object;
+import static java.lang.constant.ConstantDescs.CD_String;
+import static java.lang.constant.ConstantDescs.CD_int;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the {@link ClassFileOptimizer} over a method with store/load pairs, stack shuffling, constant arithmetic and an
+ * empty array allocation, and checks the optimized method for both its instructions and its behaviour.
+ */
+public class OptimizationTest {
+    private static final ClassDesc FUNCTION = ClassDesc.of("de.example.OptimizedFunction");
+    private static final MethodTypeDesc CONCAT = MethodTypeDesc.of(CD_String, CD_String);
+    private static final MethodTypeDesc VALUE_OF = MethodTypeDesc.of(CD_String, CD_int);
+
+    @Test
+    public void test() throws ReflectiveOperationException {
+        final var context = ClassFile.of();
+        final var bytes = context.build(FUNCTION, OptimizationTest::buildFunction);
+        final var optimized = new ClassFileOptimizer(context).optimize(bytes);
+
+        final var apply = apply(context.parse(optimized));
+        assertEquals(List.<Opcode>of(ALOAD_1, CHECKCAST, DUP, INVOKEVIRTUAL, INVOKEVIRTUAL, BIPUSH, INVOKESTATIC, INVOKEVIRTUAL,
+                                     GETSTATIC, ARRAYLENGTH, INVOKESTATIC, INVOKEVIRTUAL, ARETURN), opcodes(apply));
+        assertTrue(codeLength(apply) < codeLength(apply(context.parse(bytes))));
+
+        @SuppressWarnings("unchecked")
+        final var function = (Function<Object, Object>) MethodHandles.lookup().defineClass(optimized).getConstructor().newInstance();
+        assertEquals(" abab100", function.apply(" ab"));
+    }
+
+    @Test
+    public void testConstantSideEffects() {
+        final var context = ClassFile.of();
+        final var bytes = context.build(FUNCTION, classBuilder -> classBuilder.withMethodBody("apply", MethodTypeDesc.of(CD_Object, CD_Object), ACC_PUBLIC,
+                                                                                               code -> code.ldc(CD_String).pop()
+                                                                                                           .ldc("dropped").pop()
+                                                                                                           .aload(1)
+                                                                                                           .areturn()));
+        final var optimized = new ClassFileOptimizer(context).optimize(bytes);
+
+        // resolving a class constant may load the class or throw, so only the string push is dropped
+        assertEquals(List.<Opcode>of(LDC, POP, ALOAD_1, ARETURN), opcodes(apply(context.parse(optimized))));
+    }
+
+    /**
+     * Emits {@code apply(o)} returning {@code s.concat(s.trim()) + (2 * 3 + 4) + new Object[0].length} for {@code s = (String) o}.
+     */
+    private static void buildFunction(ClassBuilder classBuilder) {
+        classBuilder.withFlags(ACC_PUBLIC)
+                    .withInterfaceSymbols(classDesc(Function.class))
+                    .withMethodBody("apply", MethodTypeDesc.of(CD_Object, CD_Object), ACC_PUBLIC,
+                                    code -> code.aload(1)
+                                                .checkcast(CD_String)
+                                                .astore(2).aload(2)
+                                                .invokevirtual(CD_String, "trim", MethodTypeDesc.of(CD_String))
+                                                .aload(0).pop()
+                                                .aload(2).swap()
+                                                .invokevirtual(CD_String, "concat", CONCAT)
+                                                .astore(3).aload(3)
+                                                .iconst_2().iconst_3().imul().bipush(4).iadd()
+                                                .invokestatic(CD_String, "valueOf", VALUE_OF)
+                                                .invokevirtual(CD_String, "concat", CONCAT)
+                                                .iconst_0().anewarray(CD_Object).arraylength()
+                                                .invokestatic(CD_String, "valueOf", VALUE_OF)
+                                                .invokevirtual(CD_String, "concat", CONCAT)
+                                                .areturn());
+        generateConstructor(classBuilder);
+    }
+
+    private static List<Opcode> opcodes(final MethodModel method) {
+        return method.code().orElseThrow().elementStream()
+                     .filter(Instruction.class::isInstance)
+                     .map(instruction -> ((Instruction) instruction).opcode())
+                     .toList();
+    }
+
+    private static MethodModel apply(final ClassModel model) {
+        return model.methods().stream().filter(method -> method.methodName().equalsString("apply")).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,79 @@
+package de.example;
+
+import de.example.runtime.Producer;
+import de.natalie.classfile.deployment.builditem.GeneratedClassFileBeanBuildItem;
+import io.quarkus.arc.Arc;
+import io.quarkus.test.QuarkusUnitTest;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.lang.classfile.ClassBuilder;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.classDesc;
+import static java.lang.classfile.ClassFile.ACC_PUBLIC;
+import static java.lang.constant.ConstantDescs.CD_String;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Builds the example with {@code example.producers} additional beans, generated in parallel on four threads.
+ *
+ * <p>Two more beans are declared whose {@code classBuilder} callbacks wait for each other, so the build only succeeds
+ * if the beans are really generated concurrently.
+ */
+public class ParallelGenerationTest {
+    private static final int PRODUCERS = 64;
+    private static final int CONCURRENT_BEANS = 2;
+    private static final CyclicBarrier BARRIER = new CyclicBarrier(CONCURRENT_BEANS);
+
+    @RegisterExtension
+    static final QuarkusUnitTest extension = new QuarkusUnitTest().withApplicationRoot(_ -> { })
+                                                                  .overrideConfigKey("example.reply", "Configured pong!")
+                                                                  .overrideConfigKey("example.producers", String.valueOf(PRODUCERS))
+                                                                  .overrideConfigKey("quarkus.class-file-api.generation.parallel", "true")
+                                                                  .overrideConfigKey("quarkus.class-file-api.generation.parallelism", "4")
+                                                                  .addBuildChainCustomizer(chain -> chain.addBuildStep(context -> IntStream.range(0, CONCURRENT_BEANS)
+                                                                                                                                         .forEach(index -> context.produce(concurrentBean(index))))
+                                                                                                         .produces(GeneratedClassFileBeanBuildItem.class)
+                                                                                                         .build());
+
+    @Test
+    public void test() {
+        final var expected = new HashSet<>(Set.of("Pong!", "Configured pong!"));
+        IntStream.range(0, PRODUCERS).forEach(index -> expected.add("Pong " + index + "!"));
+        IntStream.range(0, CONCURRENT_BEANS).forEach(index -> expected.add("Concurrent pong " + index + "!"));
+
+        final var replies = Arc.container().select(Producer.class).stream().map(Producer::produce).collect(Collectors.toSet());
+        assertEquals(expected, replies);
+    }
+
+    private static GeneratedClassFileBeanBuildItem concurrentBean(final int index) {
+        return GeneratedClassFileBeanBuildItem.builder()
+                                              .unremovable(true)
+                                              .generateConstructor(true)
+                                              .scope(ApplicationScoped.class)
+                                              .classDesc(ClassDesc.of("de.example.ConcurrentPing" + index))
+                                              .classBuilder(classBuilder -> buildConcurrentProducer(classBuilder, "Concurrent pong " + index + "!"))
+                                              .build();
+    }
+
+    private static void buildConcurrentProducer(ClassBuilder classBuilder, String reply) {
+        try {
+            BARRIER.await(30, SECONDS);
+        } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+            throw new IllegalStateException("Beans were not generated concurrently", e);
+        }
+        classBuilder.withInterfaceSymbols(classDesc(Producer.class))
+                    .withMethodBody("produce", MethodTypeDesc.of(CD_String), ACC_PUBLIC, code -> code.ldc(reply).areturn());
+    }
+}
@@ -0,0 +1,43 @@
+package de.example;
+
+import de.example.runtime.Producer;
+import io.quarkus.arc.All;
+import io.quarkus.runtime.ApplicationLifecycleManager;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.test.QuarkusProdModeTest;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Singleton;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StartupArchiveTest {
+    @RegisterExtension
+    static final QuarkusProdModeTest extension = new QuarkusProdModeTest().withApplicationRoot(jar -> jar.addClass(Warmup.class))
+                                                                          .overrideConfigKey("example.reply", "Configured pong!")
+                                                                          .overrideConfigKey("quarkus.package.jar.appcds.enabled", "true")
+                                                                          .overrideConfigKey("quarkus.class-file-api.consolidation.enabled", "true")
+                                                                          .setJVMArgs(List.of("-XX:SharedArchiveFile=app-cds.jsa", "-Xlog:class+load=info"))
+                                                                          .setRun(true);
+
+    @Test
+    public void test() {
+        final var output = extension.getStartupConsoleOutput();
+
+        assertTrue(output.contains("de.example.ConsolidatedBeans0 source: shared objects file"), output);
+    }
+
+    /**
+     * Uses the generated beans after startup only, like a request would, so the training run does not load them.
+     */
+    @Singleton
+    public static class Warmup {
+        void onStart(@Observes StartupEvent event, @All List<Producer> producers) {
+            if (ApplicationLifecycleManager.isAppCDSGeneration()) return;
+            producers.forEach(Producer::produce);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package de.example;
+
+import de.example.runtime.Producer;
+import de.natalie.classfile.harness.HarnessTarget;
+import de.natalie.classfile.harness.StartupHarness;
+import io.quarkus.arc.Arc;
+import io.quarkus.test.QuarkusProdModeTest;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Runs the {@link StartupHarness} with {@code harness.handlers} additional generated {@link Producer} beans, measuring
+ * {@code produce()} calls.
+ *
+ * <p>Only runs if {@code harness.handlers} is set, which the {@code harness} profile does once per scale.
+ */
+@EnabledIfSystemProperty(named = StartupHarness.HANDLERS, matches = "\\d+")
+public class StartupHarnessTest {
+    @RegisterExtension
+    static final QuarkusProdModeTest extension = StartupHarness.extension("interface-implementation-harness", ProducerTarget.class)
+                                                               .overrideConfigKey("example.reply", "Configured pong!")
+                                                               .overrideConfigKey("example.producers", StartupHarness.handlers());
+
+    @Test
+    public void test(final TestReporter reporter) throws IOException {
+        StartupHarness.check(extension, reporter);
+    }
+
+    /**
+     * Calls {@code produce()} round robin over all generated {@link Producer} beans.
+     */
+    @ApplicationScoped
+    public static class ProducerTarget implements HarnessTarget {
+        @ConfigProperty(name = StartupHarness.HANDLERS) int handlers;
+        Producer[] producers;
+
+        @Override
+        public String example() {
+            return "interface-implementation";
+        }
+
+        @Override
+        public int generated() {
+            return producers.length;
+        }
+
+        @Override
+        public boolean first() {
+            producers = Arc.container().select(Producer.class).stream().toArray(Producer[]::new);
+            Arrays.stream(producers).forEach(Producer::produce);
+            return producers.length == handlers + 2;
+        }
+
+        @Override
+        public void call(final int index) {
+            producers[index % producers.length].produce();
+        }
+
+        @Override
+        public int warmupCalls() {
+            return 200_000;
+        }
+
+        @Override
+        public int measuredCalls() {
+            return 1_000_000;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package de.example;
+
+import de.natalie.classfile.deployment.builditem.TemplateVariant;
+import de.natalie.classfile.deployment.generator.ClassFileTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.lang.classfile.ClassBuilder;
+import java.lang.classfile.ClassFile;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.invoke.MethodHandles;
+import java.util.Map;
+import java.util.function.Function;
+
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.classDesc;
+import static de.natalie.classfile.deployment.utils.ProcessorUtils.generateConstructor;
+import static java.lang.classfile.ClassFile.ACC_PUBLIC;
+import static java.lang.constant.ConstantDescs.CD_Object;
+import static java.lang.constant.ConstantDescs.CD_String;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Stamps a variant out of a template whose branching {@code apply} method keeps {@code this} in a local but references
+ * neither the template class nor a replaced constant, then loads the variant, which runs it through the bytecode
+ * verifier.
+ */
+public class TemplateTest {
+    private static final ClassDesc TEMPLATE = ClassDesc.of("de.example.TemplateFunction");
+    private static final ClassDesc VARIANT = ClassDesc.of("de.example.StampedFunction");
+
+    @Test
+    public void test() throws ReflectiveOperationException {
+        final var context = ClassFile.of();
+        final var template = new ClassFileTemplate(context, context.build(TEMPLATE, TemplateTest::buildFunction));
+        final var bytes = template.stamp(new TemplateVariant(VARIANT, Map.of("template", "variant")));
+
+        @SuppressWarnings("unchecked")
+        final var function = (Function<Object, Object>) MethodHandles.lookup().defineClass(bytes).getConstructor().newInstance();
+        assertSame(function, function.apply(null));
+        assertEquals("value", function.apply("value"));
+        assertEquals("variant", function.toString());
+    }
+
+    /**
+     * Emits {@code apply(o)} returning {@code o == null ? self : o} for {@code self = this}, and {@code toString()}
+     * returning {@code "template"}. The stack map frame of the branch target in {@code apply} declares the type of
+     * {@code self}.
+     */
+    private static void buildFunction(ClassBuilder classBuilder) {
+        classBuilder.withFlags(ACC_PUBLIC)
+                    .withInterfaceSymbols(classDesc(Function.class))
+                    .withMethodBody("apply", MethodTypeDesc.of(CD_Object, CD_Object), ACC_PUBLIC, code -> {
+                        final var value = code.newLabel();
+                        code.aload(0)
+                            .astore(2)
+                            .aload(1)
+                            .ifnonnull(value)
+                            .aload(2)
+                            .areturn()
+                            .labelBinding(value)
+                            .aload(1)
+                            .areturn();
+                    })
+                    .withMethodBody("toString", MethodTypeDesc.of(CD_String), ACC_PUBLIC, code -> code.ldc("template").areturn());
+        generateConstructor(classBuilder);
+    }
+}
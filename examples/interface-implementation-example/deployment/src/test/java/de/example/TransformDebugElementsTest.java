@@ -0,0 +1,39 @@
+package de.example;
+
+import de.example.runtime.Greeter;
+import io.quarkus.test.QuarkusUnitTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.instruction.ConstantInstruction;
+import java.lang.classfile.instruction.LocalVariable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drops the debug elements of generated classes, and checks that the transformed {@link Greeter} keeps its own.
+ */
+public class TransformDebugElementsTest {
+    @RegisterExtension
+    static final QuarkusUnitTest extension = new QuarkusUnitTest().withApplicationRoot(_ -> { })
+                                                                  .overrideConfigKey("example.reply", "Configured pong!")
+                                                                  .overrideConfigKey("quarkus.class-file-api.generation.debug-elements", "drop-debug");
+
+    @Test
+    public void test() throws IOException {
+        assertEquals("Hello from the Class-File API", new Greeter().greet());
+
+        try (final var resource = Greeter.class.getClassLoader().getResourceAsStream("de/example/runtime/Greeter.class")) {
+            final var greet = ClassFile.of().parse(resource.readAllBytes()).methods().stream()
+                                       .filter(method -> method.methodName().equalsString("greet"))
+                                       .findFirst().orElseThrow();
+            final var elements = greet.code().orElseThrow().elementList();
+            assertTrue(elements.stream().anyMatch(element -> element instanceof ConstantInstruction constant
+                                                             && "Hello from the Class-File API".equals(constant.constantValue())));
+            assertTrue(elements.stream().anyMatch(LocalVariable.class::isInstance));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package de.example.runtime;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class Calculator {
+    public int add(int left, int right) {
+        return left + right;
+    }
+
+    public int length(String value) {
+        return value.length();
+    }
+
+    public int length(CharSequence value) {
+        return value.length();
+    }
+}
@@ -0,0 +1,5 @@
+package de.example.runtime;
+
+public interface Discount {
+    int apply(int price);
+}
@@ -0,0 +1,45 @@
+package de.example.runtime;
+
+import de.natalie.classfile.runtime.HiddenClassSpecialization;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import java.lang.classfile.ClassBuilder;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+
+import static java.lang.classfile.ClassFile.ACC_PUBLIC;
+import static java.lang.constant.ConstantDescs.CD_int;
+
+/**
+ * Specializes {@link Discount} for a percentage, which is folded into {@code price * (100 - percentage) / 100}.
+ * Registered as a bean, the percentage is read from {@code example.discount} at runtime.
+ */
+public class DiscountSpecialization implements HiddenClassSpecialization<Integer, Discount> {
+    @Override
+    public Lookup lookup() {
+        return MethodHandles.lookup();
+    }
+
+    @Override
+    public Class<Discount> type() {
+        return Discount.class;
+    }
+
+    @Override
+    public void build(ClassBuilder classBuilder, ClassDesc thisClass, Integer percentage) {
+        classBuilder.withMethodBody("apply", MethodTypeDesc.of(CD_int, CD_int), ACC_PUBLIC,
+                                    code -> code.iload(1)
+                                                .loadConstant(100 - percentage)
+                                                .imul()
+                                                .bipush(100)
+                                                .idiv()
+                                                .ireturn());
+    }
+
+    @Override
+    public Integer key() {
+        return ConfigProvider.getConfig().getOptionalValue("example.discount", Integer.class).orElse(0);
+    }
+}
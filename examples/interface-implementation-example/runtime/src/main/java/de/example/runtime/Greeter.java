@@ -0,0 +1,7 @@
+package de.example.runtime;
+
+public class Greeter {
+    public String greet() {
+        return "Hello";
+    }
+}
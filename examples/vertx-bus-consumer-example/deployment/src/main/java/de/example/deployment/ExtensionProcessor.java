@@ -2,42 +2,59 @@ package de.example.deployment;
 
 import de.example.runtime.EventHandler;
 import de.example.runtime.EventHandlerRecorder;
+import de.example.runtime.Greeting;
+import de.natalie.classfile.deployment.builditem.GeneratedBeanRegistryBuildItem;
 import de.natalie.classfile.deployment.builditem.GeneratedClassFileBeanBuildItem;
-import io.quarkus.arc.Arc;
-import io.quarkus.arc.ArcContainer;
-import io.quarkus.arc.InstanceHandle;
+import de.natalie.classfile.deployment.builditem.GeneratedClassFileBeanTemplateBuildItem;
+import de.natalie.classfile.deployment.builditem.InjectedField;
+import de.natalie.classfile.deployment.builditem.LocalMessageCodecBuildItem;
+import de.natalie.classfile.deployment.builditem.TemplateVariant;
+import de.natalie.classfile.deployment.generator.ConsumerDispatch;
+import de.natalie.classfile.deployment.generator.ConsumerDispatch.Mode;
+import de.natalie.classfile.runtime.GeneratedBeanRegistry;
 import io.quarkus.arc.deployment.SyntheticBeansRuntimeInitBuildItem;
-import io.quarkus.deployment.annotations.BuildProducer;
 import io.quarkus.deployment.annotations.BuildStep;
 import io.quarkus.deployment.annotations.Consume;
 import io.quarkus.deployment.annotations.Record;
 import io.quarkus.deployment.builditem.FeatureBuildItem;
 import io.quarkus.runtime.annotations.Recorder;
+import io.quarkus.vertx.core.deployment.CoreVertxBuildItem;
 import io.vertx.mutiny.core.eventbus.EventBus;
 import io.vertx.mutiny.core.eventbus.Message;
 import io.vertx.mutiny.core.eventbus.MessageConsumer;
 import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.ConfigProvider;
 
-import java.lang.annotation.Annotation;
 import java.lang.classfile.ClassBuilder;
 import java.lang.classfile.CodeBuilder;
 import java.lang.constant.ClassDesc;
 import java.lang.constant.MethodTypeDesc;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
-import static de.natalie.classfile.deployment.utils.ClassFileUtils.arrayClassDesc;
 import static de.natalie.classfile.deployment.utils.ClassFileUtils.classDesc;
 import static de.natalie.classfile.deployment.utils.ClassFileUtils.classEntry;
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.className;
 import static io.quarkus.deployment.annotations.ExecutionTime.RUNTIME_INIT;
 import static java.lang.classfile.ClassFile.ACC_PUBLIC;
-import static java.lang.constant.ConstantDescs.CD_Class;
 import static java.lang.constant.ConstantDescs.CD_Object;
 import static java.lang.constant.ConstantDescs.CD_String;
+import static java.lang.constant.ConstantDescs.CD_int;
 import static java.lang.constant.ConstantDescs.CD_void;
 import static java.lang.constant.ConstantDescs.MTD_void;
 
 class ExtensionProcessor {
     private static final String FEATURE = "extension";
+    private static final ClassDesc EVENT_HANDLERS = ClassDesc.of("de.example.EventHandlers");
+    private static final ClassDesc REPLY_HANDLER_TEMPLATE = ClassDesc.of("de.example.deployment.ReplyHandlerTemplate");
+    private static final InjectedField EVENT_BUS = new InjectedField("eventBus", classDesc(EventBus.class));
+    private static final String HANDLERS = "example.handlers";
+    private static final ConsumerDispatch DISPATCH = new ConsumerDispatch(Mode.VIRTUAL_THREAD, 64);
+    /**
+     * The number of consumers registered per generated handler, {@code 0} for one per event loop.
+     */
+    private static final int CONSUMER_INSTANCES = 0;
 
     @BuildStep
     FeatureBuildItem feature() {
@@ -50,20 +67,23 @@ class ExtensionProcessor {
      * The generated method corresponds to the following Java (simplified) code:
      *
      * <pre>{@code
-     * public void accept(Message<T> message) {
-     *     message.reply(message.body());
+     * public void accept(Message<Greeting> message) {
+     *     Greeting greeting = message.body();
+     *     message.reply(greeting);
      * }
      * }</pre>
      *
      * <p>Bytecode steps:
      * <ul>
      *     <li>Loads, casts and stores the method argument (a {@link Message} object).</li>
-     *     <li>Calls {@code body()} to get the message content.</li>
+     *     <li>Calls {@code body()} to get the message content and casts it to {@link Greeting}.</li>
      *     <li>Calls {@code reply(...)} with the retrieved body.</li>
      *     <li>Returns void.</li>
      * </ul>
      *
      * <p>The message object is temporarily stored in local variable index 2 after type casting.
+     * {@link Greeting} payloads are passed through the generated {@code GreetingCodec}, so the reply carries the
+     * same instance that was sent.
      *
      * @param builder the {@link CodeBuilder} used to emit bytecode instructions for the method
      * @see Message
@@ -78,6 +98,7 @@ class ExtensionProcessor {
                .checkcast(messageDesc)
                .astore(2).aload(2)
                .invokevirtual(messageDesc, "body", bodyMethodDesc)
+               .checkcast(classDesc(Greeting.class))
                .aload(2).swap()
                .invokevirtual(messageDesc, "reply", replyMethodDesc)
                .return_();
@@ -90,60 +111,37 @@ class ExtensionProcessor {
      *
      * <pre>{@code
      * public void registerHandler() {
-     *     try (InstanceHandle<EventBus> handle = Arc.container().instance(EventBus.class)) {
-     *         handle.get().consumer("channel", this);
-     *     }
+     *     eventBus.consumer("channel", this);
      * }
      * }</pre>
      *
      * <p>Bytecode steps:
      * <ul>
-     *     <li>Access the {@link Arc} container and request an {@link InstanceHandle} for {@link EventBus}.</li>
-     *     <li>Retrieve the {@code EventBus} instance and register this object as a consumer on the
-     *         {@code "channel"} address.</li>
-     *     <li>Close the handle to release CDI resources.</li>
+     *     <li>Load the constructor-injected {@link EventBus} from its {@code final} field.</li>
+     *     <li>Register this object as a consumer on the {@code "channel"} address.</li>
+     *     <li>Discard the returned {@link MessageConsumer}.</li>
      * </ul>
      *
-     * <p>This method makes use of constant loading, interface and virtual method invocations,
-     * and array creation for annotation parameters.
+     * <p>The event bus is read with a plain field access, so no container lookup or {@code InstanceHandle}
+     * allocation happens per call.
      *
      * @param builder the {@link CodeBuilder} used to emit bytecode instructions for the method
-     * @see Arc
      * @see EventBus
-     * @see ArcContainer
-     * @see InstanceHandle
+     * @see InjectedField
      */
     private static void buildRegisterHandler(CodeBuilder builder) {
-        final var arcDesc = classDesc(Arc.class);
         final var eventBusDesc = classDesc(EventBus.class);
         final var consumerDesc = classDesc(Consumer.class);
-        final var annotationDesc = classDesc(Annotation.class);
-        final var arcContainerDesc = classDesc(ArcContainer.class);
-        final var instanceHandleDesc = classDesc(InstanceHandle.class);
         final var messageConsumerDesc = classDesc(MessageConsumer.class);
 
-        final var annotationsDesc = arrayClassDesc(Annotation.class);
-
-        final var getMethodDesc = MethodTypeDesc.of(CD_Object);
-        final var containerMethodDesc = MethodTypeDesc.of(arcContainerDesc);
         final var consumerMethodDesc = MethodTypeDesc.of(messageConsumerDesc, CD_String, consumerDesc);
-        final var instanceMethodDesc = MethodTypeDesc.of(instanceHandleDesc, CD_Class, annotationsDesc);
-
-        builder.invokestatic(arcDesc, "container", containerMethodDesc)
-               .ldc(eventBusDesc)
-               .iconst_0()
-               .anewarray(annotationDesc)
-               .invokeinterface(arcContainerDesc, "instance", instanceMethodDesc)
-               .astore(1)
-               .aload(1)
-               .invokeinterface(instanceHandleDesc, "get", getMethodDesc)
-               .checkcast(eventBusDesc)
-               .ldc("channel")
-               .aload(0)
-               .invokevirtual(eventBusDesc, "consumer", consumerMethodDesc)
-               .aload(1)
-               .invokeinterface(instanceHandleDesc, "close", MTD_void)
-               .return_();
+
+        EVENT_BUS.load(builder, REPLY_HANDLER_TEMPLATE)
+                 .ldc("channel")
+                 .aload(0)
+                 .invokevirtual(eventBusDesc, "consumer", consumerMethodDesc)
+                 .pop()
+                 .return_();
     }
 
     /**
@@ -153,28 +151,49 @@ class ExtensionProcessor {
      *
      * <pre>{@code
      * @ApplicationScoped
-     * public class ReplyHandler<T> implements EventHandler, Consumer<Message<T>> {
+     * public class ReplyHandler implements EventHandler, Consumer<Message<Greeting>> {
+     *     private final EventBus eventBus;
+     *
+     *     @Inject
+     *     public ReplyHandler(EventBus eventBus) {
+     *         this.eventBus = eventBus;
+     *     }
+     *
      *     @Override
-     *     public void accept(Message<T> message) {
-     *         message.reply(message.body());
+     *     public void accept(Message<Greeting> message) {
+     *         Greeting greeting = message.body();
+     *         message.reply(greeting);
      *     }
      *
      *     public void registerHandler() {
-     *         try (InstanceHandle<EventBus> handle = Arc.container().instance(EventBus.class)) {
-     *             handle.get().consumer("channel", this);
-     *         }
+     *         eventBus.consumer("channel", this);
+     *     }
+     *
+     *     public EventHandler copy() {
+     *         return new ReplyHandler(eventBus);
+     *     }
+     *
+     *     public int instances() {
+     *         return 0;
      *     }
      * }
      * }</pre>
      *
      * <p>The method configures this structure using the provided {@link ClassBuilder}, including:
      * <ul>
-     *     <li>Public access modifier and implementation of {@code EventHandler} and {@code Consumer<Message<T>>}.</li>
+     *     <li>Public access modifier and implementation of {@code EventHandler} and {@code Consumer<Message<Greeting>>}.</li>
      *     <li>Two methods: {@code accept} and {@code registerHandler}, built via helper methods.</li>
+     *     <li>An {@code instances} method returning {@link #CONSUMER_INSTANCES}, the number of consumers the recorder
+     *     registers for the handler.</li>
+     *     <li>A {@code copy} method emitted by {@link InjectedField#withCopyMethod}, which the recorder uses to register
+     *     further instances of the handler.</li>
      * </ul>
      *
+     * <p>{@code accept} is dispatched to a virtual thread per message by {@link ConsumerDispatch}, so the reply never
+     * blocks the event loop. At most 64 messages per handler class are handled at once, further messages are failed
+     * with {@link ConsumerDispatch#BUSY}.
+     *
      * @param classBuilder the {@link ClassBuilder} instance used to construct the class
-     * @see Arc
      * @see Message
      * @see EventBus
      */
@@ -187,36 +206,90 @@ class ExtensionProcessor {
         classBuilder.withFlags(ACC_PUBLIC)
                     .withSuperclass(CD_Object)
                     .withInterfaces(eventHandlerEntry, consumerEntry)
-                    .withMethodBody("accept", acceptMethodDesc, ACC_PUBLIC, ExtensionProcessor::buildAcceptMethod)
-                    .withMethodBody("registerHandler", MTD_void, ACC_PUBLIC, ExtensionProcessor::buildRegisterHandler);
+                    .withMethodBody("registerHandler", MTD_void, ACC_PUBLIC, ExtensionProcessor::buildRegisterHandler)
+                    .withMethodBody("instances", MethodTypeDesc.of(CD_int), ACC_PUBLIC, code -> code.loadConstant(CONSUMER_INSTANCES).ireturn());
+        InjectedField.withCopyMethod(classBuilder, REPLY_HANDLER_TEMPLATE, "copy", classDesc(EventHandler.class), List.of(EVENT_BUS));
+        DISPATCH.withMethod(classBuilder, REPLY_HANDLER_TEMPLATE, "accept", acceptMethodDesc, ExtensionProcessor::buildAcceptMethod);
     }
 
     /**
-     * Registers the {@code ReplyHandler} class for generation and inclusion as a CDI bean during build time.
+     * Registers the {@code ReplyHandler} family of classes for generation and inclusion as CDI beans during build time.
      * <p>
-     * This build step produces a {@link GeneratedClassFileBeanBuildItem}, which defines a class that will be
-     * compiled to bytecode and made available as an unremovable CDI bean with {@link ApplicationScoped} scope.
-     * The structure of the class is defined via {@link ExtensionProcessor#buildHandler}.
+     * This build step produces a {@link GeneratedClassFileBeanTemplateBuildItem}. Its template defines a class that
+     * will be compiled to bytecode once, with the structure defined via {@link ExtensionProcessor#buildHandler}.
+     * Each {@link TemplateVariant} is then stamped out of the template under its own name, with the {@code "channel"}
+     * address replaced, and made available as an unremovable CDI bean with {@link ApplicationScoped} scope.
      *
-     * <p>The build item is configured with:
+     * <p>The template is configured with:
      * <ul>
      *   <li>{@code unremovable(true)} to prevent removal during unused-bean elimination</li>
-     *   <li>{@code generateConstructor(true)} to generate a default constructor</li>
+     *   <li>{@code generateConstructor(true)} to generate a default constructor for the client proxy</li>
+     *   <li>{@code injectedField(EVENT_BUS)} to inject the {@link EventBus} through an {@code @Inject} constructor</li>
      *   <li>{@code scope(ApplicationScoped.class)} for CDI lifecycle control</li>
      *   <li>A {@code classBuilder} callback for bytecode emission</li>
      * </ul>
      *
-     * @param generatedClasses the {@link BuildProducer} responsible for collecting generated class build items
+     * <p>The variants are {@code ReplyHandler} on {@code "channel"} and {@code PriorityReplyHandler} on
+     * {@code "priority-channel"}. The build time property {@code example.handlers} adds that many
+     * {@code ScaledReplyHandler<i>} variants on {@code "channel-<i>"}, which the startup harness uses to scale the
+     * number of generated handlers.
+     *
+     * @return the {@link GeneratedClassFileBeanTemplateBuildItem} describing the handler family
+     */
+    @BuildStep
+    GeneratedClassFileBeanTemplateBuildItem produceClasses() {
+        final var template = GeneratedClassFileBeanBuildItem.builder()
+                                                            .unremovable(true)
+                                                            .generateConstructor(true)
+                                                            .injectedField(EVENT_BUS)
+                                                            .scope(ApplicationScoped.class)
+                                                            .classBuilder(ExtensionProcessor::buildHandler)
+                                                            .classDesc(REPLY_HANDLER_TEMPLATE)
+                                                            .build();
+        final var builder = GeneratedClassFileBeanTemplateBuildItem.builder()
+                                                                   .template(template)
+                                                                   .variant(new TemplateVariant(ClassDesc.of("de.example.deployment.ReplyHandler"), Map.of()))
+                                                                   .variant(new TemplateVariant(ClassDesc.of("de.example.deployment.PriorityReplyHandler"),
+                                                                                                Map.of("channel", "priority-channel")));
+        final var handlers = ConfigProvider.getConfig().getOptionalValue(HANDLERS, Integer.class).orElse(0);
+        for (var index = 0; index < handlers; index++) {
+            builder.variant(new TemplateVariant(ClassDesc.of("de.example.deployment.ScaledReplyHandler" + index),
+                                                Map.of("channel", "channel-" + index)));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Requests a pass-through local codec for {@link Greeting} payloads.
+     *
+     * <p>The default codecs of the event bus copy or serialize payloads they do not know. The generated
+     * {@code GreetingCodec} hands the sent instance to the consumer and back to the requester without a copy.
+     *
+     * @return the {@link LocalMessageCodecBuildItem} describing the {@code GreetingCodec}
+     */
+    @BuildStep
+    LocalMessageCodecBuildItem greetingCodec() {
+        return LocalMessageCodecBuildItem.builder()
+                                         .classDesc(ClassDesc.of("de.example.GreetingCodec"))
+                                         .payloadType(classDesc(Greeting.class))
+                                         .build();
+    }
+
+    /**
+     * Requests a build time registry of all generated {@link EventHandler} beans.
+     *
+     * <p>The registry lists the generated handlers by their bean identifier, so the recorder does not have to
+     * resolve every {@link EventHandler} in the container at startup.
+     *
+     * @return the {@link GeneratedBeanRegistryBuildItem} describing the {@code EventHandlers} registry
+     * @see GeneratedBeanRegistry
      */
     @BuildStep
-    void produceClasses(BuildProducer<GeneratedClassFileBeanBuildItem> generatedClasses) {
-        generatedClasses.produce(GeneratedClassFileBeanBuildItem.builder()
-                                                                .unremovable(true)
-                                                                .generateConstructor(true)
-                                                                .scope(ApplicationScoped.class)
-                                                                .classBuilder(ExtensionProcessor::buildHandler)
-                                                                .classDesc(ClassDesc.of("de.example.deployment.ReplyHandler"))
-                                                                .build());
+    GeneratedBeanRegistryBuildItem eventHandlerRegistry() {
+        return GeneratedBeanRegistryBuildItem.builder()
+                                             .classDesc(EVENT_HANDLERS)
+                                             .beanType(classDesc(EventHandler.class))
+                                             .build();
     }
 
     /**
@@ -228,15 +301,18 @@ class ExtensionProcessor {
      * It consumes {@link SyntheticBeansRuntimeInitBuildItem} to guarantee execution after synthetic beans
      * have been initialized, ensuring that all generated handlers are present before registration.
      *
-     * <p>The actual registration logic is delegated to a {@link Recorder} class, which typically
-     * uses runtime APIs (e.g., {@code Arc.container()}, {@code EventBus}) to wire up the handler logic.
+     * <p>The actual registration logic is delegated to a {@link Recorder} class, which iterates the
+     * generated {@code EventHandlers} registry to wire up the handler logic. Each handler is deployed as a verticle with
+     * as many instances as its generated {@code instances()} method returns, each instance on its own event loop
+     * context.
      *
      * @param recorder the {@link EventHandlerRecorder} responsible for performing runtime registration logic
+     * @param vertx    the {@link CoreVertxBuildItem} providing the Vert.x instance whose event loops are used
      */
     @BuildStep
     @Record(RUNTIME_INIT)
     @Consume(SyntheticBeansRuntimeInitBuildItem.class)
-    void registerConsumers(EventHandlerRecorder recorder) {
-        recorder.registerConsumers();
+    void registerConsumers(EventHandlerRecorder recorder, CoreVertxBuildItem vertx) {
+        recorder.registerConsumers(vertx.getVertx(), className(EVENT_HANDLERS));
     }
 }
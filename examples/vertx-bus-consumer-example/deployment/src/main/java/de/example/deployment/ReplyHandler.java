@@ -1,21 +1,39 @@
 package de.example.deployment;
 
 import de.example.runtime.EventHandler;
-import io.quarkus.arc.Arc;
-import io.quarkus.arc.InstanceHandle;
+import de.example.runtime.Greeting;
 import io.vertx.mutiny.core.eventbus.EventBus;
 import io.vertx.mutiny.core.eventbus.Message;
+import jakarta.inject.Inject;
 
 import java.util.function.Consumer;
 
-public class ReplyHandler<T> implements EventHandler, Consumer<Message<T>> {
-    public void accept(Message<T> message) {
-        message.reply(message.body());
+public class ReplyHandler implements EventHandler, Consumer<Message<Greeting>> {
+    private final EventBus eventBus;
+
+    public ReplyHandler() {
+        this.eventBus = null;
+    }
+
+    @Inject
+    public ReplyHandler(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    public void accept(Message<Greeting> message) {
+        final Greeting greeting = message.body();
+        message.reply(greeting);
     }
 
     public void registerHandler() {
-        try (InstanceHandle<EventBus> handle = Arc.container().instance(EventBus.class)) {
-            handle.get().consumer("channel", this);
-        }
+        eventBus.consumer("channel", this);
+    }
+
+    public EventHandler copy() {
+        return new ReplyHandler(eventBus);
+    }
+
+    public int instances() {
+        return 0;
     }
 }
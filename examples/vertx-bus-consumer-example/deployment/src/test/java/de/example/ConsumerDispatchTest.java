@@ -0,0 +1,110 @@
+package de.example;
+
+import de.natalie.classfile.deployment.generator.ClassFileEventWeaver;
+import de.natalie.classfile.deployment.generator.ConsumerDispatch;
+import de.natalie.classfile.deployment.generator.ConsumerDispatch.Mode;
+import de.natalie.classfile.runtime.GeneratedMethodEvent;
+import io.quarkus.runtime.ExecutorRecorder;
+import org.junit.jupiter.api.Test;
+
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.ClassModel;
+import java.lang.classfile.MethodModel;
+import java.lang.classfile.instruction.ConstantInstruction;
+import java.lang.classfile.instruction.InvokeInstruction;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.classDesc;
+import static de.natalie.classfile.deployment.utils.ProcessorUtils.generateConstructor;
+import static java.lang.classfile.ClassFile.ACC_PUBLIC;
+import static java.lang.constant.ConstantDescs.CD_Object;
+import static java.lang.constant.ConstantDescs.CD_void;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Dispatches a generated consumer with a single permit to a worker pool which rejects every task, and checks that each
+ * rejection releases the permit again, so the consumer still runs once the pool accepts tasks. Also checks which method
+ * of a dispatched consumer is timed by JFR events.
+ */
+public class ConsumerDispatchTest {
+    private static final ClassDesc CONSUMER = ClassDesc.of("de.example.DispatchedConsumer");
+    private static final String REJECTED = "Rejected by the worker pool";
+
+    @Test
+    public void test() throws ReflectiveOperationException {
+        final var dispatch = new ConsumerDispatch(Mode.WORKER, 1);
+        final var bytes = ClassFile.of().build(CONSUMER, classBuilder -> {
+            classBuilder.withFlags(ACC_PUBLIC).withInterfaceSymbols(classDesc(Consumer.class));
+            dispatch.withMethod(classBuilder, CONSUMER, "accept", MethodTypeDesc.of(CD_void, CD_Object), code -> code.return_());
+            generateConstructor(classBuilder);
+        });
+        @SuppressWarnings("unchecked")
+        final var consumer = (Consumer<Object>) MethodHandles.lookup().defineClass(bytes).getConstructor().newInstance();
+
+        final var executed = new AtomicInteger();
+        final var current = ExecutorRecorder.class.getDeclaredField("current");
+        current.setAccessible(true);
+        final var previous = current.get(null);
+        try {
+            current.set(null, (Executor) _ -> {
+                throw new RejectedExecutionException(REJECTED);
+            });
+            for (var attempt = 0; attempt < 3; attempt++) {
+                assertEquals(REJECTED, assertThrows(RejectedExecutionException.class, () -> consumer.accept("message")).getMessage());
+            }
+
+            current.set(null, (Executor) task -> {
+                executed.incrementAndGet();
+                task.run();
+            });
+            consumer.accept("message");
+            consumer.accept("message");
+        } finally {
+            current.set(null, previous);
+        }
+        assertEquals(2, executed.get());
+    }
+
+    /**
+     * Weaves JFR events into a dispatched consumer and checks that they time its body, under the name of the public
+     * method, instead of the hand-off.
+     */
+    @Test
+    public void testJfrEvents() {
+        final var dispatch = new ConsumerDispatch(Mode.VIRTUAL_THREAD, 1);
+        final var bytes = ClassFile.of().build(CONSUMER, classBuilder -> {
+            classBuilder.withFlags(ACC_PUBLIC).withInterfaceSymbols(classDesc(Consumer.class));
+            dispatch.withMethod(classBuilder, CONSUMER, "accept", MethodTypeDesc.of(CD_void, CD_Object), code -> code.return_());
+            generateConstructor(classBuilder);
+        });
+        final var woven = ClassFile.of().parse(new ClassFileEventWeaver(ClassFile.of()).weave(bytes));
+
+        assertEquals(List.of("accept"), timedNames(woven, "accept$body"));
+        assertEquals(List.of(), timedNames(woven, "accept"));
+    }
+
+    private static List<String> timedNames(final ClassModel model, final String method) {
+        final var code = model.methods().stream()
+                              .filter(candidate -> candidate.methodName().equalsString(method))
+                              .findFirst()
+                              .flatMap(MethodModel::code)
+                              .orElseThrow();
+        final var elements = code.elementList();
+        return IntStream.range(1, elements.size())
+                        .filter(index -> elements.get(index) instanceof InvokeInstruction invoke
+                                         && invoke.owner().asSymbol().equals(classDesc(GeneratedMethodEvent.class))
+                                         && invoke.name().equalsString("complete"))
+                        .mapToObj(index -> (String) ((ConstantInstruction) elements.get(index - 1)).constantValue())
+                        .distinct()
+                        .toList();
+    }
+}
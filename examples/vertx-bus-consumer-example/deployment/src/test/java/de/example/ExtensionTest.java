@@ -1,24 +1,146 @@
 package de.example;
 
+import de.example.runtime.EventHandler;
+import de.example.runtime.Greeting;
+import de.natalie.classfile.deployment.generator.ConsumerDispatch;
+import de.natalie.classfile.deployment.generator.ConsumerDispatch.Mode;
+import de.natalie.classfile.runtime.GeneratedBeanRegistry;
 import io.quarkus.test.QuarkusUnitTest;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.DeliveryContext;
+import io.vertx.core.eventbus.ReplyException;
 import io.vertx.mutiny.core.eventbus.EventBus;
+import io.vertx.mutiny.core.eventbus.Message;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import java.lang.classfile.ClassFile;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static de.natalie.classfile.deployment.utils.ClassFileUtils.classDesc;
+import static de.natalie.classfile.deployment.utils.ProcessorUtils.generateConstructor;
+import static java.lang.classfile.ClassFile.ACC_PUBLIC;
+import static java.lang.constant.ConstantDescs.CD_Object;
+import static java.lang.constant.ConstantDescs.CD_void;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ExtensionTest {
     @RegisterExtension
-    static final QuarkusUnitTest APPLICATION_ROOT = new QuarkusUnitTest().withApplicationRoot(_ -> { });
+    static final QuarkusUnitTest APPLICATION_ROOT = new QuarkusUnitTest().withApplicationRoot(_ -> { })
+                                                                         .overrideRuntimeConfigKey("quarkus.vertx.event-loops-pool-size", "4");
+
+    private static final ClassDesc BLOCKING_CONSUMER = ClassDesc.of("de.example.BlockingConsumer");
+    private static final CountDownLatch ENTERED = new CountDownLatch(1);
+    private static final CountDownLatch RELEASED = new CountDownLatch(1);
+    private static final AtomicBoolean VIRTUAL = new AtomicBoolean();
 
     @Inject EventBus eventBus;
 
     @Test
     public void test() {
-        final var message = "Hello World";
+        final var message = new Greeting("Hello World");
         final var result = eventBus.requestAndAwait("channel", message);
 
-        assertEquals(message, result.body());
+        assertSame(message, result.body());
+    }
+
+    @Test
+    public void testRegistry() {
+        final var handlers = GeneratedBeanRegistry.<EventHandler>load("de.example.EventHandlers").instances();
+
+        assertEquals(2, handlers.size());
+        assertEquals("de.example.deployment.ReplyHandler", handlers.getFirst().getBean().getBeanClass().getName());
+        assertEquals("de.example.deployment.PriorityReplyHandler", handlers.getLast().getBean().getBeanClass().getName());
+    }
+
+    @Test
+    public void testTemplateVariant() {
+        final var message = new Greeting("Hello Priority");
+        final var result = eventBus.requestAndAwait("priority-channel", message);
+
+        assertSame(message, result.body());
+    }
+
+    @Test
+    public void testDispatch() throws ReflectiveOperationException, InterruptedException, ExecutionException, TimeoutException {
+        final var handlerClass = Class.forName("de.example.deployment.PriorityReplyHandler");
+
+        handlerClass.getDeclaredMethod("accept$body", Object.class);
+        handlerClass.getDeclaredMethod("accept$dispatched", Object.class);
+        final var results = IntStream.range(0, 32)
+                                     .mapToObj(index -> eventBus.request("priority-channel", new Greeting("Hello " + index)))
+                                     .map(reply -> reply.await().indefinitely().body())
+                                     .toList();
+        assertEquals(32, results.size());
+
+        // a consumer with a single permit, whose body blocks on a virtual thread until it is released
+        final var bytes = ClassFile.of().build(BLOCKING_CONSUMER, classBuilder -> {
+            classBuilder.withFlags(ACC_PUBLIC).withInterfaceSymbols(classDesc(Consumer.class));
+            new ConsumerDispatch(Mode.VIRTUAL_THREAD, 1).withMethod(classBuilder, BLOCKING_CONSUMER, "accept", MethodTypeDesc.of(CD_void, CD_Object),
+                                                                   code -> code.aload(1)
+                                                                               .invokestatic(classDesc(ExtensionTest.class), "blockingReply", MethodTypeDesc.of(CD_void, CD_Object))
+                                                                               .return_());
+            generateConstructor(classBuilder);
+        });
+        @SuppressWarnings("unchecked")
+        final var consumer = (Consumer<Message<Object>>) MethodHandles.lookup().defineClass(bytes).getConstructor().newInstance();
+        final var registration = eventBus.consumer("blocking-channel").handler(consumer);
+        try {
+            final var message = new Greeting("Hello Blocking");
+            final var reply = eventBus.request("blocking-channel", message).subscribeAsCompletionStage();
+            assertTrue(ENTERED.await(10, SECONDS));
+
+            final var busy = assertThrows(ReplyException.class, () -> eventBus.requestAndAwait("blocking-channel", new Greeting("Hello Busy")));
+            assertEquals(ConsumerDispatch.BUSY, busy.failureCode());
+
+            RELEASED.countDown();
+            assertSame(message, reply.get(10, SECONDS).body());
+            assertTrue(VIRTUAL.get());
+        } finally {
+            RELEASED.countDown();
+            registration.unregisterAndAwait();
+        }
+    }
+
+    /**
+     * The body of the {@code BlockingConsumer}, which replies once the test releases it.
+     */
+    static void blockingReply(final Object message) throws InterruptedException {
+        VIRTUAL.set(Thread.currentThread().isVirtual());
+        ENTERED.countDown();
+        RELEASED.await();
+        ((Message<?>) message).reply(((Message<?>) message).body());
+    }
+
+    @Test
+    public void testConsumerInstances() {
+        final var threads = ConcurrentHashMap.<String>newKeySet();
+        final Handler<DeliveryContext<Object>> interceptor = context -> {
+            if (context.message().address().equals("priority-channel")) threads.add(Thread.currentThread().getName());
+            context.next();
+        };
+
+        eventBus.getDelegate().addInboundInterceptor(interceptor);
+        try {
+            IntStream.range(0, 32).forEach(index -> eventBus.requestAndAwait("priority-channel", new Greeting("Hello " + index)));
+        } finally {
+            eventBus.getDelegate().removeInboundInterceptor(interceptor);
+        }
+        assertEquals(4, threads.size());
+        assertTrue(threads.stream().allMatch(thread -> thread.startsWith("vert.x-eventloop-thread-")));
     }
 }
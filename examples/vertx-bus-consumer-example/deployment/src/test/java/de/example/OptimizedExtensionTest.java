@@ -0,0 +1,40 @@
+package de.example;
+
+import de.example.runtime.Greeting;
+import io.quarkus.test.QuarkusUnitTest;
+import io.vertx.mutiny.core.eventbus.EventBus;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Builds the example with {@code quarkus.class-file-api.generation.optimize} enabled and checks that the optimized
+ * consumers, including the stamped template variant and its dispatch method, still reply.
+ */
+public class OptimizedExtensionTest {
+    @RegisterExtension
+    static final QuarkusUnitTest APPLICATION_ROOT = new QuarkusUnitTest().withApplicationRoot(_ -> { })
+                                                                         .overrideConfigKey("quarkus.class-file-api.generation.optimize", "true");
+
+    @Inject EventBus eventBus;
+
+    @Test
+    public void test() {
+        final var message = new Greeting("Hello World");
+        final var result = eventBus.requestAndAwait("channel", message);
+
+        assertSame(message, result.body());
+    }
+
+    @Test
+    public void testTemplateVariant() {
+        IntStream.range(0, 32).forEach(index -> {
+            final var message = new Greeting("Hello " + index);
+            assertSame(message, eventBus.requestAndAwait("priority-channel", message).body());
+        });
+    }
+}
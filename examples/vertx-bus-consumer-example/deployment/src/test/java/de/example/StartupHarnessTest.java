@@ -0,0 +1,75 @@
+package de.example;
+
+import de.example.runtime.Greeting;
+import de.natalie.classfile.harness.HarnessTarget;
+import de.natalie.classfile.harness.StartupHarness;
+import io.quarkus.test.QuarkusProdModeTest;
+import io.vertx.mutiny.core.eventbus.EventBus;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.util.stream.IntStream;
+
+/**
+ * Runs the {@link StartupHarness} with {@code harness.handlers} additional generated handlers, measuring event bus
+ * request/reply round trips.
+ *
+ * <p>Only runs if {@code harness.handlers} is set, which the {@code harness} profile does once per scale.
+ */
+@EnabledIfSystemProperty(named = StartupHarness.HANDLERS, matches = "\\d+")
+public class StartupHarnessTest {
+    @RegisterExtension
+    static final QuarkusProdModeTest extension = StartupHarness.extension("vertx-bus-consumer-harness", RequestTarget.class)
+                                                               .overrideConfigKey("example.handlers", StartupHarness.handlers());
+
+    @Test
+    public void test(final TestReporter reporter) throws IOException {
+        StartupHarness.check(extension, reporter);
+    }
+
+    /**
+     * Sends requests round robin over the addresses of the generated handlers.
+     */
+    @ApplicationScoped
+    public static class RequestTarget implements HarnessTarget {
+        private static final Greeting MESSAGE = new Greeting("Hello Harness");
+
+        @Inject EventBus eventBus;
+        @ConfigProperty(name = StartupHarness.HANDLERS) int handlers;
+        String[] channels;
+
+        @PostConstruct
+        void init() {
+            channels = IntStream.range(0, Math.max(handlers, 1))
+                                .mapToObj(index -> handlers == 0 ? "channel" : "channel-" + index)
+                                .toArray(String[]::new);
+        }
+
+        @Override
+        public String example() {
+            return "vertx-bus-consumer";
+        }
+
+        @Override
+        public int generated() {
+            return handlers + 2;
+        }
+
+        @Override
+        public boolean first() {
+            return eventBus.requestAndAwait(channels[0], MESSAGE).body() == MESSAGE;
+        }
+
+        @Override
+        public void call(final int index) {
+            eventBus.requestAndAwait(channels[index % channels.length], MESSAGE);
+        }
+    }
+}
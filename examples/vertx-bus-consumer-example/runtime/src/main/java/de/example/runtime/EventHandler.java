@@ -2,4 +2,14 @@ package de.example.runtime;
 
 public interface EventHandler {
     void registerHandler();
+
+    /**
+     * Returns a new handler sharing the injected dependencies of this one, but none of its other state.
+     */
+    EventHandler copy();
+
+    /**
+     * Returns the number of consumers registered for this handler, or {@code 0} for one per event loop.
+     */
+    int instances();
 }
@@ -1,16 +1,62 @@
 package de.example.runtime;
 
-import io.quarkus.arc.Arc;
+import de.natalie.classfile.runtime.GeneratedBeanRegistry;
 import io.quarkus.runtime.annotations.Recorder;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Verticle;
+import io.vertx.core.Vertx;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 @Recorder
 public class EventHandlerRecorder {
-    public void registerConsumers() {
-        final var handlers = Arc.container().listAll(EventHandler.class);
+    /**
+     * Registers every generated handler {@link EventHandler#instances()} times, by default once per event loop.
+     *
+     * <p>Each handler is deployed as a verticle with that many instances, which Vert.x assigns round robin to the
+     * event loops, so the consumers of one address are spread over the cores. The bean itself is registered by the
+     * first instance; every further instance registers a {@link EventHandler#copy()} created on its own context, so its
+     * state is allocated there and not shared. All deployments run concurrently, and the call returns once they are
+     * done.
+     */
+    public void registerConsumers(final Supplier<Vertx> vertx, final String registryClass) {
+        final var eventLoops = eventLoops(vertx.get());
+        final var deployments = new ArrayList<Future<String>>();
+
+        final var handlers = GeneratedBeanRegistry.<EventHandler>load(registryClass).instances();
         for (final var handler : handlers) {
             try (final var instance = handler) {
-                instance.get().registerHandler();
+                final var bean = instance.get();
+                final var instances = bean.instances() > 0 ? bean.instances() : eventLoops;
+                deployments.add(vertx.get().deployVerticle(verticles(bean), new DeploymentOptions().setInstances(instances)));
             }
         }
+        Future.all(deployments).toCompletionStage().toCompletableFuture().join();
+    }
+
+    /**
+     * Supplies a verticle registering the bean first, and a copy of it for every further instance.
+     */
+    private static Supplier<Verticle> verticles(final EventHandler bean) {
+        final var registered = new AtomicBoolean();
+        return () -> {
+            final var copy = registered.getAndSet(true);
+            return new AbstractVerticle() {
+                @Override
+                public void start() {
+                    (copy ? bean.copy() : bean).registerHandler();
+                }
+            };
+        };
+    }
+
+    private static int eventLoops(final Vertx vertx) {
+        final var eventLoops = new int[1];
+        vertx.nettyEventLoopGroup().forEach(_ -> eventLoops[0]++);
+        return eventLoops[0];
     }
 }
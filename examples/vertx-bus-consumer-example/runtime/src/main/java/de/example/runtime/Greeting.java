@@ -0,0 +1,4 @@
+package de.example.runtime;
+
+public record Greeting(String text) {
+}
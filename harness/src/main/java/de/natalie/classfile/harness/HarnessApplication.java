@@ -0,0 +1,116 @@
+package de.natalie.classfile.harness;
+
+import io.quarkus.runtime.QuarkusApplication;
+import io.quarkus.runtime.annotations.QuarkusMain;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static de.natalie.classfile.harness.StartupHarness.HANDLERS;
+import static de.natalie.classfile.harness.StartupHarness.RESULTS;
+import static de.natalie.classfile.harness.StartupHarness.VERSION;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+/**
+ * Measures the started application through its {@link HarnessTarget} and appends the result line, then exits.
+ *
+ * <ul>
+ *     <li>{@code runtimeInitMillis} from the runtime configuration setup, the first {@code RUNTIME_INIT} step, to the
+ *     {@code StartupEvent}.</li>
+ *     <li>{@code firstRequestMillis} from the start of the JVM to the end of {@link HarnessTarget#first()}.</li>
+ *     <li>{@code rssKiB}, {@code heapUsedBytes} after a GC and {@code loadedClasses} once the first calls are done.</li>
+ *     <li>{@code requestsPerSecond}, {@code p50Micros} and {@code p99Micros} of {@link HarnessTarget#call} over all
+ *     generated beans.</li>
+ * </ul>
+ */
+@QuarkusMain
+public class HarnessApplication implements QuarkusApplication {
+    private static final int CONCURRENCY = 16;
+
+    @Inject HarnessTarget target;
+    @ConfigProperty(name = HANDLERS) int handlers;
+    @ConfigProperty(name = RESULTS) String results;
+    @ConfigProperty(name = VERSION) String version;
+
+    @Override
+    public int run(final String... args) throws IOException {
+        if (!target.first()) return 1;
+        final var firstRequest = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+
+        final var loadedClasses = ManagementFactory.getClassLoadingMXBean().getLoadedClassCount();
+        System.gc();
+        final var heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        final var rss = residentSetSize();
+
+        calls(target.warmupCalls());
+        final var start = System.nanoTime();
+        final var latencies = calls(target.measuredCalls());
+        final var elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+
+        final var result = String.format("{\"version\":\"%s\",\"timestamp\":\"%s\",\"example\":\"%s\",\"handlers\":%d,"
+                                         + "\"generatedHandlers\":%d,\"runtimeInitMillis\":%.3f,\"firstRequestMillis\":%d,\"rssKiB\":%d,"
+                                         + "\"heapUsedBytes\":%d,\"loadedClasses\":%d,\"requestsPerSecond\":%.0f,\"p50Micros\":%.3f,"
+                                         + "\"p99Micros\":%.3f}%n",
+                                         version, Instant.now(), target.example(), handlers, target.generated(),
+                                         (StartupProbe.started - RuntimeInitProbe.started) / 1_000_000.0, firstRequest, rss,
+                                         heapUsed, loadedClasses, latencies.length / (elapsed / 1e9),
+                                         micros(percentile(latencies, 0.50)), micros(percentile(latencies, 0.99)));
+        final var file = Path.of(results);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, result, CREATE, APPEND);
+        return 0;
+    }
+
+    /**
+     * Makes {@code count} calls round robin over the generated beans from {@link #CONCURRENCY} virtual threads and
+     * returns the latency of each call in nanoseconds.
+     */
+    private long[] calls(final int count) {
+        final var latencies = new long[count];
+        final var next = new AtomicInteger();
+        try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var thread = 0; thread < CONCURRENCY; thread++) {
+                executor.execute(() -> {
+                    for (var index = next.getAndIncrement(); index < count; index = next.getAndIncrement()) {
+                        final var called = System.nanoTime();
+                        target.call(index);
+                        latencies[index] = System.nanoTime() - called;
+                    }
+                });
+            }
+        }
+        return latencies;
+    }
+
+    private static long percentile(final long[] sorted, final double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static double micros(final long nanos) {
+        return nanos / 1_000.0;
+    }
+
+    /**
+     * Reads {@code VmRSS} from {@code /proc/self/status}, or returns {@code -1} where it is not available.
+     */
+    private static long residentSetSize() {
+        try (final var lines = Files.lines(Path.of("/proc/self/status"))) {
+            return lines.filter(line -> line.startsWith("VmRSS:"))
+                        .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                        .findFirst()
+                        .orElse(-1);
+        } catch (IOException _) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package de.natalie.classfile.harness;
+
+/**
+ * The generated beans of an example, as called by the {@link HarnessApplication}. Implementations are
+ * {@code @ApplicationScoped} beans of the packaged application.
+ */
+public interface HarnessTarget {
+    /**
+     * The name of the example in the result line.
+     */
+    String example();
+
+    /**
+     * The number of generated beans which are called.
+     */
+    int generated();
+
+    /**
+     * Makes the first calls after startup, which {@code firstRequestMillis} covers, and returns whether their results
+     * are correct.
+     */
+    boolean first();
+
+    /**
+     * Calls the generated bean {@code index} modulo {@link #generated()} once. Called concurrently.
+     */
+    void call(int index);
+
+    /**
+     * The number of calls before the measurement.
+     */
+    default int warmupCalls() {
+        return 20_000;
+    }
+
+    /**
+     * The number of measured calls.
+     */
+    default int measuredCalls() {
+        return 100_000;
+    }
+}
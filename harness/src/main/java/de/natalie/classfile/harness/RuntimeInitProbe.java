@@ -0,0 +1,37 @@
+package de.natalie.classfile.harness;
+
+import io.quarkus.builder.BuildContext;
+import io.quarkus.deployment.builditem.RunTimeConfigBuilderBuildItem;
+import io.quarkus.runtime.configuration.ConfigBuilder;
+import io.quarkus.test.ProdModeTestBuildStep;
+import io.smallrye.config.SmallRyeConfigBuilder;
+
+import java.util.Map;
+
+/**
+ * Registered as a runtime config builder, which is first used when {@code RUNTIME_INIT} sets up the runtime
+ * configuration.
+ */
+public class RuntimeInitProbe implements ConfigBuilder {
+    static volatile long started;
+
+    @Override
+    public SmallRyeConfigBuilder configBuilder(final SmallRyeConfigBuilder builder) {
+        if (started == 0) started = System.nanoTime();
+        return builder;
+    }
+
+    /**
+     * Registers the {@link RuntimeInitProbe} with the packaged application.
+     */
+    public static class Step extends ProdModeTestBuildStep {
+        public Step(final Map<String, Object> testContext) {
+            super(testContext);
+        }
+
+        @Override
+        public void execute(final BuildContext context) {
+            context.produce(new RunTimeConfigBuilderBuildItem(RuntimeInitProbe.class));
+        }
+    }
+}
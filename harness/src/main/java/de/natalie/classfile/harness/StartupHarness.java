@@ -0,0 +1,74 @@
+package de.natalie.classfile.harness;
+
+import io.quarkus.deployment.builditem.RunTimeConfigBuilderBuildItem;
+import io.quarkus.test.QuarkusProdModeTest;
+import io.quarkus.test.QuarkusProdModeTest.BuildChainCustomizerEntry;
+import org.junit.jupiter.api.TestReporter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Packages an example with {@code harness.handlers} additional generated beans, runs it in its own JVM and checks the
+ * JSON line with its startup and call figures which the {@link HarnessApplication} appends to {@code harness.results}.
+ *
+ * <p>The {@code StartupHarnessTest} of an example registers {@link #extension} with a {@link HarnessTarget} calling its
+ * generated beans, and passes the finished run to {@link #check}. The results file defaults to
+ * {@code harness-results/results.jsonl}, outside of the build directory, so results survive a {@code mvn clean}.
+ */
+public final class StartupHarness {
+    public static final String HANDLERS = "harness.handlers";
+    public static final String RESULTS = "harness.results";
+    public static final String VERSION = "harness.version";
+    private static final Path RESULTS_FILE = Path.of(System.getProperty(RESULTS, "harness-results/results.jsonl")).toAbsolutePath();
+
+    private StartupHarness() {
+    }
+
+    /**
+     * Returns the number of additional generated beans to package the example with.
+     */
+    public static String handlers() {
+        return System.getProperty(HANDLERS, "0");
+    }
+
+    /**
+     * Creates the test packaging the {@link HarnessApplication} with the given {@code target}. Example specific build
+     * configuration, e.g. the number of generated beans, is added by the caller.
+     */
+    public static QuarkusProdModeTest extension(final String applicationName, final Class<? extends HarnessTarget> target) {
+        return new QuarkusProdModeTest().withApplicationRoot(jar -> jar.addClasses(target,
+                                                                                   HarnessTarget.class,
+                                                                                   HarnessApplication.class,
+                                                                                   RuntimeInitProbe.class,
+                                                                                   StartupProbe.class))
+                                        .setApplicationName(applicationName)
+                                        .setApplicationVersion(System.getProperty(VERSION, "unknown"))
+                                        .addBuildChainCustomizerEntries(new BuildChainCustomizerEntry(RuntimeInitProbe.Step.class,
+                                                                                                      List.of(RunTimeConfigBuilderBuildItem.class),
+                                                                                                      List.of()))
+                                        .setJVMArgs(List.of("-Xmx512m"))
+                                        .setRuntimeProperties(Map.of(HANDLERS, handlers(),
+                                                                     RESULTS, RESULTS_FILE.toString(),
+                                                                     VERSION, System.getProperty(VERSION, "unknown")))
+                                        .setExpectExit(true)
+                                        .setRun(true);
+    }
+
+    /**
+     * Checks that the packaged application exited normally and appended its result line, and publishes that line.
+     */
+    public static void check(final QuarkusProdModeTest extension, final TestReporter reporter) throws IOException {
+        assertEquals(0, extension.getExitCode(), extension.getStartupConsoleOutput());
+
+        final var result = Files.readAllLines(RESULTS_FILE).getLast();
+        assertTrue(result.contains("\"handlers\":" + handlers() + ","), result);
+        reporter.publishEntry(RESULTS, result);
+    }
+}
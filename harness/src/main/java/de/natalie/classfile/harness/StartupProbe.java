@@ -0,0 +1,17 @@
+package de.natalie.classfile.harness;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+
+/**
+ * Observes the {@link StartupEvent} fired at the end of {@code RUNTIME_INIT}.
+ */
+@ApplicationScoped
+public class StartupProbe {
+    static volatile long started;
+
+    void started(@Observes final StartupEvent event) {
+        started = System.nanoTime();
+    }
+}
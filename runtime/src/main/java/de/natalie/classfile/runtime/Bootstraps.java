@@ -0,0 +1,97 @@
+package de.natalie.classfile.runtime;
+
+import io.quarkus.arc.Arc;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.ConstantCallSite;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Semaphore;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Bootstrap methods for dynamic constants ({@code ldc} of a {@code CONSTANT_Dynamic}) and {@code invokedynamic}
+ * call sites emitted into generated classes.
+ *
+ * <p>Each bootstrap method runs once per constant or call site, on first use. The resolved value is then bound for the
+ * lifetime of the generated class, so the JIT treats it like a {@code static final} field and can constant fold through
+ * it. Normal scoped beans resolve to their client proxy, which is safe to bind. Resolving a {@code @Dependent} bean binds
+ * one instance that is never destroyed.
+ *
+ * <p>These methods are not meant to be called directly. Deployment code emits them through {@code BootstrapUtils}.
+ */
+public final class Bootstraps {
+    private Bootstraps() {
+    }
+
+    /**
+     * Resolves the bean of the given type from the ArC container.
+     *
+     * @param lookup the lookup of the generated class
+     * @param name   the name of the constant, unused
+     * @param type   the bean type
+     * @return the bean instance, or the client proxy for normal scoped beans
+     */
+    public static Object bean(final Lookup lookup, final String name, final Class<?> type) {
+        final var instance = Arc.container().instance(type);
+        if (!instance.isAvailable()) {
+            throw new IllegalStateException("No bean of type %s found for %s".formatted(type.getName(), lookup.lookupClass().getName()));
+        }
+        return instance.get();
+    }
+
+    /**
+     * Resolves a configuration value. Primitive types are converted through their wrapper type.
+     *
+     * @param lookup   the lookup of the generated class
+     * @param name     the name of the constant, unused
+     * @param type     the type of the value
+     * @param property the name of the configuration property
+     * @return the configuration value
+     */
+    public static Object config(final Lookup lookup, final String name, final Class<?> type, final String property) {
+        return ConfigProvider.getConfig().getValue(property, MethodType.methodType(type).wrap().returnType());
+    }
+
+    /**
+     * Creates the {@link Semaphore} limiting the concurrent calls of a dispatched method of a generated class.
+     *
+     * @param lookup  the lookup of the generated class
+     * @param name    the name of the constant, unused
+     * @param type    {@link Semaphore}
+     * @param permits the maximum number of concurrent calls
+     * @return a new semaphore with {@code permits} permits, shared by all instances of the generated class
+     */
+    public static Semaphore permits(final Lookup lookup, final String name, final Class<?> type, final int permits) {
+        return new Semaphore(permits);
+    }
+
+    /**
+     * Links an {@code invokedynamic} call site of type {@code ()T} to the bean of type {@code T}.
+     *
+     * @see #bean(Lookup, String, Class)
+     */
+    public static CallSite beanCallSite(final Lookup lookup, final String name, final MethodType type) {
+        return constantCallSite(type, bean(lookup, name, type.returnType()));
+    }
+
+    /**
+     * Links an {@code invokedynamic} call site of type {@code ()T} to the configuration value of the given property.
+     *
+     * @see #config(Lookup, String, Class, String)
+     */
+    public static CallSite configCallSite(final Lookup lookup, final String name, final MethodType type, final String property) {
+        return constantCallSite(type, config(lookup, name, type.returnType(), property));
+    }
+
+    private static CallSite constantCallSite(final MethodType type, final Object value) {
+        if (type.parameterCount() != 0) {
+            throw new IllegalArgumentException("Call site must not take parameters: " + type);
+        }
+        if (isNull(value)) return new ConstantCallSite(MethodHandles.zero(type.returnType()));
+        return new ConstantCallSite(MethodHandles.constant(type.returnType(), value));
+    }
+}
@@ -0,0 +1,35 @@
+package de.natalie.classfile.runtime;
+
+import io.quarkus.arc.InstanceHandle;
+
+import java.util.List;
+
+/**
+ * A registry generated at build time, listing every generated bean implementing a given type.
+ *
+ * <p>Each bean is looked up by its build time identifier, so iterating the registry does not resolve beans by type
+ * against the whole container the way {@code Arc.container().listAll(type)} does.
+ *
+ * @param <T> the type implemented by all beans of the registry
+ */
+public interface GeneratedBeanRegistry<T> {
+    /**
+     * Returns a new handle for every bean of this registry, in declaration order.
+     * The caller is responsible for closing the handles of {@code @Dependent} beans.
+     */
+    List<InstanceHandle<T>> instances();
+
+    /**
+     * Instantiates the registry generated under the given class name with the context class loader.
+     * Generated registries are registered for reflection, so this also works in a native image.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> GeneratedBeanRegistry<T> load(final String className) {
+        try {
+            final var type = Class.forName(className, true, Thread.currentThread().getContextClassLoader());
+            return (GeneratedBeanRegistry<T>) type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to load generated bean registry " + className, e);
+        }
+    }
+}
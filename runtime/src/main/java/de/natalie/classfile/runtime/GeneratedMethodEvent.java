@@ -0,0 +1,48 @@
+package de.natalie.classfile.runtime;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR event recording a call of a public method of a generated bean, woven into beans declared with
+ * {@code jfrEvents(true)} or built with {@code quarkus.class-file-api.generation.jfr-events=true}.
+ *
+ * <p>The woven code creates and begins the event on entry and passes it to {@link #complete} on every return and on
+ * exceptions. The event is only filled in and written if {@link #shouldCommit()} is true, so calls cost little more
+ * than two timestamps while the event is disabled.
+ *
+ * <p>Methods of consolidated beans report the shared class they were merged into.
+ */
+@Name(GeneratedMethodEvent.NAME)
+@Label("Generated Method")
+@Category({"Quarkus", "Class-File API"})
+@Description("A call of a public method of a generated bean")
+@StackTrace(false)
+public final class GeneratedMethodEvent extends Event {
+    public static final String NAME = "de.natalie.classfile.GeneratedMethod";
+
+    @Label("Bean Class")
+    Class<?> beanClass;
+
+    @Label("Method")
+    String method;
+
+    /**
+     * Ends the event and writes it if it is enabled and above its threshold. Called by the woven code.
+     *
+     * @param event     the event begun on entry of the method
+     * @param beanClass the generated class
+     * @param method    the name of the method
+     */
+    public static void complete(final GeneratedMethodEvent event, final Class<?> beanClass, final String method) {
+        if (event.shouldCommit()) {
+            event.beanClass = beanClass;
+            event.method = method;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package de.natalie.classfile.runtime;
+
+import io.quarkus.runtime.annotations.Recorder;
+
+import java.util.function.Supplier;
+
+/**
+ * Creates the beans declared by {@code HiddenClassBeanBuildItem}s, which implement an interface with a hidden class
+ * specialized for a value only known at runtime.
+ *
+ * <p>The value is taken from {@link HiddenClassSpecialization#key()} during {@code RUNTIME_INIT}, so it may depend on
+ * the runtime configuration. The class is generated once, when the recorder runs, and the bean supplier always returns
+ * the same instance.
+ */
+@Recorder
+public class HiddenClassRecorder {
+    /**
+     * @param specializationClass the name of the {@link HiddenClassSpecialization}, instantiated with its public
+     *                            no-arg constructor through the context class loader
+     */
+    @SuppressWarnings("unchecked")
+    public Supplier<Object> specialize(final String specializationClass) {
+        final HiddenClassSpecialization<Object, ?> specialization;
+        try {
+            final var type = Class.forName(specializationClass, true, Thread.currentThread().getContextClassLoader());
+            specialization = (HiddenClassSpecialization<Object, ?>) type.getDeclaredConstructor().newInstance();
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to instantiate hidden class specialization " + specializationClass, e);
+        }
+
+        final Object bean = new HiddenClassSpecializer<>(specialization, 1).get(specialization.key());
+        return () -> bean;
+    }
+}
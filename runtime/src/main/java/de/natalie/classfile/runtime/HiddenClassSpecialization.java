@@ -0,0 +1,50 @@
+package de.natalie.classfile.runtime;
+
+import java.lang.classfile.ClassBuilder;
+import java.lang.constant.ClassDesc;
+import java.lang.invoke.MethodHandles.Lookup;
+
+/**
+ * Describes how to build an implementation of an interface specialized for a value only known at runtime, such as
+ * tenant configuration or a routing table.
+ *
+ * <p>The implementations are generated with the Class-File API and defined as hidden classes by a
+ * {@link HiddenClassSpecializer}. The value the class is specialized for is emitted as a constant, e.g. with
+ * {@code ldc}, so the JIT folds it into the generated code instead of branching on it on every call. Values without a
+ * constant pool form are passed as class data and loaded with {@link HiddenClassSpecializer#classData(ClassDesc)}.
+ *
+ * <p>Hidden classes are not supported in native images.
+ *
+ * @param <K> the type of the value the implementations are specialized for
+ * @param <T> the interface implemented by the specialized classes
+ */
+public interface HiddenClassSpecialization<K, T> {
+    /**
+     * A lookup with full privileges, usually {@code MethodHandles.lookup()}. The hidden classes are defined in its
+     * package and class loader, which must see {@link #type()}.
+     */
+    Lookup lookup();
+
+    /**
+     * The interface implemented by the specialized classes.
+     */
+    Class<T> type();
+
+    /**
+     * Adds the methods of the specialized class. Flags, the interface and a public no-arg constructor are already
+     * declared.
+     *
+     * @param classBuilder the builder of the specialized class
+     * @param thisClass    the descriptor of the specialized class, to be used for references to itself
+     * @param key          the value to specialize for, also available as class data
+     */
+    void build(ClassBuilder classBuilder, ClassDesc thisClass, K key);
+
+    /**
+     * The value to specialize for if the implementation is registered as a bean by {@link HiddenClassRecorder}.
+     * It is called once during {@code RUNTIME_INIT}, when the runtime configuration is available.
+     */
+    default K key() {
+        throw new UnsupportedOperationException("%s does not provide a runtime key".formatted(getClass().getName()));
+    }
+}
@@ -0,0 +1,109 @@
+package de.natalie.classfile.runtime;
+
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.ClassHierarchyResolver;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.DynamicConstantDesc;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.lang.classfile.ClassFile.ACC_FINAL;
+import static java.lang.classfile.ClassFile.ACC_PUBLIC;
+import static java.lang.classfile.ClassFile.ACC_SYNTHETIC;
+import static java.lang.constant.ConstantDescs.BSM_CLASS_DATA;
+import static java.lang.constant.ConstantDescs.CD_Object;
+import static java.lang.constant.ConstantDescs.DEFAULT_NAME;
+import static java.lang.constant.ConstantDescs.INIT_NAME;
+import static java.lang.constant.ConstantDescs.MTD_void;
+import static java.util.Objects.isNull;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Generates and caches implementations of an interface specialized for runtime values, one hidden class per value.
+ *
+ * <p>Each class is defined with {@code Lookup.defineHiddenClassWithClassData}, with the value as its class data, and
+ * instantiated once. The instances are cached by value, least recently used first evicted once {@code maxSize} is
+ * exceeded. Hidden classes are not strongly linked to their class loader, so the class of an evicted instance is
+ * unloaded as soon as no other reference to the instance is left.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * HiddenClassSpecializer<Integer, Discount> discounts = new HiddenClassSpecializer<>(new DiscountSpecialization(), 16);
+ * int price = discounts.get(tenant.discount()).apply(100);
+ * }</pre>
+ *
+ * @param <K> the type of the value the implementations are specialized for
+ * @param <T> the interface implemented by the specialized classes
+ * @see HiddenClassSpecialization
+ */
+public final class HiddenClassSpecializer<K, T> {
+    private static final String CLASS_SUFFIX = "$Specialized";
+
+    private final HiddenClassSpecialization<K, T> specialization;
+    private final ClassDesc classDesc;
+    private final ClassFile context;
+    private final Map<K, T> instances;
+
+    public HiddenClassSpecializer(final HiddenClassSpecialization<K, T> specialization, final int maxSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        this.specialization = specialization;
+        this.classDesc = ClassDesc.of(specialization.lookup().lookupClass().getPackageName(),
+                                      specialization.type().getSimpleName() + CLASS_SUFFIX);
+        // stack maps of the specialized classes may have to merge types only the lookup's class loader can see
+        final var resolver = ClassHierarchyResolver.defaultResolver().orElse(ClassHierarchyResolver.ofClassLoading(specialization.lookup()));
+        this.context = ClassFile.of(ClassFile.ClassHierarchyResolverOption.of(resolver));
+        this.instances = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, T> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Loads the class data of a specialized class, the value it was specialized for, as a dynamic constant.
+     *
+     * @param type the type of the value
+     * @return a constant to be loaded with {@code ldc}
+     */
+    public static DynamicConstantDesc<Object> classData(final ClassDesc type) {
+        return DynamicConstantDesc.ofNamed(BSM_CLASS_DATA, DEFAULT_NAME, type);
+    }
+
+    /**
+     * Returns the implementation specialized for {@code key}, generating it on first use.
+     */
+    public synchronized T get(final K key) {
+        requireNonNull(key, "key");
+        var instance = instances.get(key);
+        if (isNull(instance)) {
+            instance = define(key);
+            instances.put(key, instance);
+        }
+        return instance;
+    }
+
+    /**
+     * The number of cached implementations.
+     */
+    public synchronized int size() {
+        return instances.size();
+    }
+
+    private T define(final K key) {
+        final var bytes = context.build(classDesc, classBuilder -> {
+            classBuilder.withFlags(ACC_PUBLIC | ACC_FINAL | ACC_SYNTHETIC)
+                        .withSuperclass(CD_Object)
+                        .withInterfaceSymbols(ClassDesc.of(specialization.type().getName()))
+                        .withMethodBody(INIT_NAME, MTD_void, ACC_PUBLIC,
+                                        code -> code.aload(0).invokespecial(CD_Object, INIT_NAME, MTD_void).return_());
+            specialization.build(classBuilder, classDesc, key);
+        });
+        try {
+            final var lookup = specialization.lookup().defineHiddenClassWithClassData(bytes, key, true);
+            return specialization.type().cast(lookup.lookupClass().getConstructor().newInstance());
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to define %s specialized for %s".formatted(classDesc.displayName(), key), e);
+        }
+    }
+}
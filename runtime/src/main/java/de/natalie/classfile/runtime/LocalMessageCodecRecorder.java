@@ -0,0 +1,23 @@
+package de.natalie.classfile.runtime;
+
+import io.quarkus.runtime.ShutdownContext;
+import io.quarkus.runtime.annotations.Recorder;
+
+import java.util.Map;
+
+/**
+ * Registers the generated local {@code MessageCodec}s as default codecs of their payload types.
+ *
+ * <p>Vert.x is an optional dependency, so the recorder itself must not mention Vert.x types in any method signature.
+ * The registration is delegated to {@link LocalMessageCodecs}, which is only loaded if codecs were requested. It loads
+ * the codecs and payload types by name, so the deployment module registers both for reflection.
+ */
+@Recorder
+public class LocalMessageCodecRecorder {
+    /**
+     * @param codecs the generated codec class names, keyed by the name of their payload type
+     */
+    public void registerCodecs(final Map<String, String> codecs, final ShutdownContext shutdown) {
+        LocalMessageCodecs.register(codecs, shutdown);
+    }
+}
@@ -0,0 +1,28 @@
+package de.natalie.classfile.runtime;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.runtime.ShutdownContext;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+
+import java.util.Map;
+
+final class LocalMessageCodecs {
+    private LocalMessageCodecs() {
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static void register(final Map<String, String> codecs, final ShutdownContext shutdown) {
+        final var eventBus = Arc.container().instance(EventBus.class).get();
+        final var classLoader = Thread.currentThread().getContextClassLoader();
+        codecs.forEach((payloadType, codec) -> {
+            try {
+                final Class type = Class.forName(payloadType, false, classLoader);
+                eventBus.registerDefaultCodec(type, (MessageCodec) Class.forName(codec, true, classLoader).getDeclaredConstructor().newInstance());
+                shutdown.addShutdownTask(() -> eventBus.unregisterDefaultCodec(type));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to register message codec " + codec, e);
+            }
+        });
+    }
+}
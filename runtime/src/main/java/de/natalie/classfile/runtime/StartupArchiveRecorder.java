@@ -0,0 +1,33 @@
+package de.natalie.classfile.runtime;
+
+import io.quarkus.runtime.ApplicationLifecycleManager;
+import io.quarkus.runtime.annotations.Recorder;
+
+import java.util.List;
+
+/**
+ * Loads the generated classes while Quarkus dumps an AppCDS or AOT cache archive.
+ *
+ * <p>The archive only contains the classes loaded during the training run, which starts the application and exits
+ * right away. Generated beans are loaded on first use, so beans which are not used during startup would be missing
+ * from the archive. Outside of the training run this recorder does nothing, and the classes are loaded lazily as usual,
+ * from the archive if it is present.
+ */
+@Recorder
+public class StartupArchiveRecorder {
+    /**
+     * @param classNames the names of the generated classes, in a stable order
+     */
+    public void preload(final List<String> classNames) {
+        if (!ApplicationLifecycleManager.isAppCDSGeneration()) return;
+
+        final var classLoader = Thread.currentThread().getContextClassLoader();
+        for (final var className : classNames) {
+            try {
+                Class.forName(className, false, classLoader);
+            } catch (final ClassNotFoundException e) {
+                throw new IllegalStateException("Generated class %s not found".formatted(className), e);
+            }
+        }
+    }
+}